@@ -0,0 +1,88 @@
+package com.TPC.ocean.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.TPC.ocean.config.JacksonConfig;
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.PessoaFisica;
+import com.TPC.ocean.model.Transacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/** Dados e infraestrutura compartilhados pelos benchmarks, sem subir o contexto Spring. */
+final class Fixtures {
+    static final int PAGINA = 100;
+
+    private Fixtures() {
+    }
+
+    /** Requisição nova, como cada chamada HTTP que monta uma página. */
+    static void novaRequisicao(String uri) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", uri)));
+    }
+
+    /** Mesmo mapper HAL que o Spring HATEOAS registra, com os módulos da aplicação. */
+    static ObjectMapper halMapper() {
+        ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new JacksonConfig().hibernateModule())
+            .registerModule(new Jackson2HalModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+            new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        return mapper;
+    }
+
+    static Empresa empresa(long id) {
+        return Empresa.builder().id(id).versao(0L).nome("Empresa " + id).cnpj("12.345.678/0001-90")
+            .email("contato" + id + "@empresa.com").telefone("11999990000").endereco("Rua do Porto, " + id).build();
+    }
+
+    static PessoaFisica pessoaFisica(long id) {
+        return PessoaFisica.builder().id(id).versao(0L).nome("Pessoa " + id).cpf("123.456.789-00")
+            .email("pessoa" + id + "@gmail.com").senha("senha123").build();
+    }
+
+    static List<Contrato> contratos() {
+        Empresa empresa = empresa(1);
+        List<Contrato> contratos = new ArrayList<>(PAGINA);
+        for (long id = 1; id <= PAGINA; id++) {
+            contratos.add(Contrato.builder().id(id).versao(0L).empresa(empresa).tipoContrato("Pesca")
+                .dataInicio(LocalDate.of(2024, 1, 1)).dataFim(LocalDate.of(2025, 1, 1)).valor(1000.0 * id)
+                .status("Ativo").assinaturaPendente("0").build());
+        }
+        return contratos;
+    }
+
+    static List<Transacao> transacoes(List<Contrato> contratos) {
+        List<Transacao> transacoes = new ArrayList<>(PAGINA);
+        for (int i = 0; i < PAGINA; i++) {
+            transacoes.add(Transacao.builder().id(i + 1L).versao(0L).contrato(contratos.get(i % contratos.size()))
+                .data(LocalDate.of(2024, 6, 1).plusDays(i)).valor(150.0 + i).descricao("Venda de pescado lote " + i).build());
+        }
+        return transacoes;
+    }
+
+    static <T> PagedModel<EntityModel<T>> pagina(List<T> itens, Function<T, EntityModel<T>> toModel) {
+        List<EntityModel<T>> models = new ArrayList<>(itens.size());
+        for (T item : itens) {
+            models.add(toModel.apply(item));
+        }
+        return PagedModel.of(models, new PagedModel.PageMetadata(itens.size(), 0, itens.size() * 10L));
+    }
+}
@@ -0,0 +1,79 @@
+package com.TPC.ocean.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.TPC.ocean.controller.ContratoController;
+import com.TPC.ocean.model.Contrato;
+
+/**
+ * Montagem dos links HATEOAS de uma página de contratos dentro de uma
+ * requisição, comparada com a montagem anterior, que recalculava a URL base
+ * a cada item. A diferença de alocação aparece com
+ * {@code -Djmh.args="HateoasBenchmark -prof gc"} (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HateoasBenchmark {
+    private List<Contrato> contratos;
+
+    @Setup
+    public void setup() {
+        contratos = Fixtures.contratos();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<EntityModel<Contrato>> paginaDeContratos() {
+        Fixtures.novaRequisicao("/contratos");
+        List<EntityModel<Contrato>> models = new ArrayList<>(contratos.size());
+        for (Contrato contrato : contratos) {
+            models.add(contrato.toEntityModel());
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<EntityModel<Contrato>> paginaDeContratosPorItem() {
+        Fixtures.novaRequisicao("/contratos");
+        List<EntityModel<Contrato>> models = new ArrayList<>(contratos.size());
+        for (Contrato contrato : contratos) {
+            models.add(linksPorItem(contrato, ContratoController.class, contrato.getId()));
+        }
+        return models;
+    }
+
+    /** Montagem anterior: URL base e nome do controller recalculados a cada item. */
+    private static <T> EntityModel<T> linksPorItem(T entity, Class<?> controllerClass, Long id) {
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
+        Link selfLink = Link.of(baseUrl + "/" + controllerClass.getSimpleName().toLowerCase() + "/" + id);
+        Link deleteLink = Link.of(baseUrl + "/" + controllerClass.getSimpleName().toLowerCase() + "/" + id + "/delete");
+        Link contentsLink = Link.of(baseUrl + "/" + controllerClass.getSimpleName().toLowerCase() + "/contents");
+        return EntityModel.of(entity, selfLink.withSelfRel(), deleteLink.withRel("delete"), contentsLink.withRel("contents"));
+    }
+}
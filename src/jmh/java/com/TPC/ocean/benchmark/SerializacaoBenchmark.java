@@ -0,0 +1,61 @@
+package com.TPC.ocean.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Transacao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/** Serialização HAL das páginas de contratos e transações, já com os links montados. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+    private ObjectWriter writer;
+    private PagedModel<EntityModel<Contrato>> contratos;
+    private PagedModel<EntityModel<Transacao>> transacoes;
+
+    @Setup
+    public void setup() {
+        writer = Fixtures.halMapper().writer();
+        Fixtures.novaRequisicao("/contratos");
+        List<Contrato> lista = Fixtures.contratos();
+        contratos = Fixtures.pagina(lista, Contrato::toEntityModel);
+        transacoes = Fixtures.pagina(Fixtures.transacoes(lista), Transacao::toEntityModel);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public byte[] paginaDeContratos() throws JsonProcessingException {
+        return writer.writeValueAsBytes(contratos);
+    }
+
+    @Benchmark
+    public byte[] paginaDeTransacoes() throws JsonProcessingException {
+        return writer.writeValueAsBytes(transacoes);
+    }
+}
@@ -0,0 +1,80 @@
+package com.TPC.ocean.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.PessoaFisica;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Bean Validation dos payloads de Empresa e PessoaFisica. Os casos inválidos
+ * falham no @Pattern de CNPJ/CPF e pagam a interpolação da mensagem.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmark {
+    private ValidatorFactory factory;
+    private Validator validator;
+    private Empresa empresaValida;
+    private Empresa empresaInvalida;
+    private PessoaFisica pessoaValida;
+    private PessoaFisica pessoaInvalida;
+
+    @Setup
+    public void setup() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        empresaValida = Fixtures.empresa(1);
+        empresaInvalida = Fixtures.empresa(2);
+        empresaInvalida.setCnpj("12345678000190");
+        pessoaValida = Fixtures.pessoaFisica(1);
+        pessoaInvalida = Fixtures.pessoaFisica(2);
+        pessoaInvalida.setCpf("12345678900");
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Empresa>> empresaValida() {
+        return validator.validate(empresaValida);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Empresa>> empresaComCnpjInvalido() {
+        return validator.validate(empresaInvalida);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PessoaFisica>> pessoaFisicaValida() {
+        return validator.validate(pessoaValida);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PessoaFisica>> pessoaFisicaComCpfInvalido() {
+        return validator.validate(pessoaInvalida);
+    }
+}
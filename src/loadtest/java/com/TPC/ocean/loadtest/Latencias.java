@@ -0,0 +1,60 @@
+package com.TPC.ocean.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Latências de um endpoint coletadas por uma thread; as threads são mescladas no fim. */
+final class Latencias {
+    private long[] nanos = new long[1024];
+    private int tamanho;
+    private long erros;
+
+    void registrar(long duracao, boolean erro) {
+        if (tamanho == nanos.length) {
+            nanos = Arrays.copyOf(nanos, tamanho * 2);
+        }
+        nanos[tamanho++] = duracao;
+        if (erro) {
+            erros++;
+        }
+    }
+
+    void mesclar(Latencias outra) {
+        for (int i = 0; i < outra.tamanho; i++) {
+            registrar(outra.nanos[i], false);
+        }
+        erros += outra.erros;
+    }
+
+    Map<String, Object> resumo(double segundos) {
+        long[] ordenadas = Arrays.copyOf(nanos, tamanho);
+        Arrays.sort(ordenadas);
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("requisicoes", tamanho);
+        resumo.put("erros", erros);
+        resumo.put("throughput", arredondar(tamanho / segundos));
+        resumo.put("p50Ms", percentil(ordenadas, 50));
+        resumo.put("p95Ms", percentil(ordenadas, 95));
+        resumo.put("p99Ms", percentil(ordenadas, 99));
+        resumo.put("maxMs", tamanho == 0 ? 0.0 : milis(ordenadas[tamanho - 1]));
+        return resumo;
+    }
+
+    /** Percentil pelo método nearest-rank. */
+    private static double percentil(long[] ordenadas, int p) {
+        if (ordenadas.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * ordenadas.length);
+        return milis(ordenadas[Math.max(rank, 1) - 1]);
+    }
+
+    private static double milis(long nanos) {
+        return arredondar(nanos / 1_000_000.0);
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 1000) / 1000.0;
+    }
+}
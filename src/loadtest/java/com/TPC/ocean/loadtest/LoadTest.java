@@ -0,0 +1,235 @@
+package com.TPC.ocean.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.TPC.ocean.OceanApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Sobe a aplicação com o perfil loadtest (H2 em memória) e dispara tráfego
+ * concorrente de CRUD e listagem contra os nove recursos. Cada ciclo cria um
+ * registro que referencia apenas as sementes, consulta, atualiza, lista a
+ * coleção e remove o registro criado.
+ *
+ * Configuração por propriedades de sistema: loadtest.threads, loadtest.warmup
+ * e loadtest.duracao (segundos), loadtest.sementes e loadtest.saida.
+ */
+public class LoadTest {
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private record Recurso(String caminho, LongFunction<String> corpo) {
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Map<String, Long> sementes = new HashMap<>();
+    private final String base;
+    private List<Recurso> recursos;
+
+    private LoadTest(String base) {
+        this.base = base;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        int warmup = Integer.getInteger("loadtest.warmup", 10);
+        int duracao = Integer.getInteger("loadtest.duracao", 60);
+        int porRecurso = Integer.getInteger("loadtest.sementes", 100);
+        Path saida = Path.of(System.getProperty("loadtest.saida", "target/loadtest-result.json"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OceanApplication.class)
+                .profiles("loadtest")
+                .run(args)) {
+            String porta = context.getEnvironment().getRequiredProperty("local.server.port");
+            LoadTest teste = new LoadTest("http://localhost:" + porta);
+            teste.semear(porRecurso);
+
+            log.info("Aquecimento: {} threads por {}s", threads, warmup);
+            teste.executar(threads, warmup);
+            log.info("Medição: {} threads por {}s", threads, duracao);
+            Map<String, Latencias> medidas = teste.executar(threads, duracao);
+
+            Map<String, Object> resultado = new LinkedHashMap<>();
+            resultado.put("configuracao", Map.of(
+                    "threads", threads, "warmupSegundos", warmup, "duracaoSegundos", duracao, "sementesPorRecurso", porRecurso));
+            Latencias total = new Latencias();
+            Map<String, Object> endpoints = new LinkedHashMap<>();
+            medidas.forEach((endpoint, latencias) -> {
+                endpoints.put(endpoint, latencias.resumo(duracao));
+                total.mesclar(latencias);
+            });
+            resultado.put("total", total.resumo(duracao));
+            resultado.put("endpoints", endpoints);
+
+            Files.createDirectories(saida.toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(saida.toFile(), resultado);
+            imprimir(endpoints, total.resumo(duracao));
+            log.info("Resultado gravado em {}", saida.toAbsolutePath());
+        }
+    }
+
+    /** Cria os registros-pai referenciados pelo tráfego e popula cada coleção. */
+    private void semear(int porRecurso) throws IOException, InterruptedException {
+        recursos = List.of(
+                new Recurso("/empresas", n -> """
+                        {"nome":"Empresa %d","cnpj":"%s","email":"empresa%d@carga.com","telefone":"11999990000","endereco":"Rua do Porto, %d"}"""
+                        .formatted(n, cnpj(n, 1), n, n)),
+                new Recurso("/instituicoes", n -> """
+                        {"nome":"Instituicao %d","cnpj":"%s","email":"inst%d@carga.com","telefone":"11988880000","endereco":"Av. do Mar, %d"}"""
+                        .formatted(n, cnpj(n, 2), n, n)),
+                new Recurso("/pessoas-fisicas", n -> """
+                        {"nome":"Pessoa %d","cpf":"%03d.%03d.%03d-%02d","email":"pessoa%d@carga.com","senha":"senha123"}"""
+                        .formatted(n, n / 1_000_000 % 1000, n / 1000 % 1000, n % 1000, n % 100, n)),
+                new Recurso("/usuarios", n -> """
+                        {"nome":"Usuario %d","email":"usuario%d@carga.com","senha":"senha123","tipo":"empresa","empresa":{"id":%d}}"""
+                        .formatted(n, n, sementes.get("/empresas"))),
+                new Recurso("/servicos", n -> """
+                        {"empresa":{"id":%d},"dataServico":"2024-05-%02d","descricao":"Limpeza de praia %d","status":"Ativo"}"""
+                        .formatted(sementes.get("/empresas"), n % 28 + 1, n)),
+                new Recurso("/contratos", n -> """
+                        {"empresa":{"id":%d},"tipoContrato":"Pesca","dataInicio":"2024-01-%02d","dataFim":"2025-01-01","valor":%d.0,"status":"Ativo","assinaturaPendente":"0"}"""
+                        .formatted(sementes.get("/empresas"), n % 28 + 1, 1000 + n)),
+                new Recurso("/transacoes", n -> """
+                        {"contrato":{"id":%d},"data":"2024-06-%02d","valor":%d.5,"descricao":"Venda de pescado lote %d"}"""
+                        .formatted(sementes.get("/contratos"), n % 28 + 1, 100 + n % 500, n)),
+                new Recurso("/exibicoes", n -> """
+                        {"transacao":{"id":%d},"valor":%d.0,"dataExibicao":"2024-07-%02d","descricao":"Exibicao de resultado %d"}"""
+                        .formatted(sementes.get("/transacoes"), 10 + n % 90, n % 28 + 1, n)),
+                new Recurso("/termos-condicoes", n -> """
+                        {"usuario":{"id":%d},"aceitou":"1","dataAceite":"2024-01-%02d"}"""
+                        .formatted(sementes.get("/usuarios"), n % 28 + 1)));
+
+        // em ordem de dependência: cada recurso já encontra a semente dos pais
+        for (Recurso recurso : recursos) {
+            for (int i = 0; i < porRecurso; i++) {
+                HttpResponse<String> resposta = enviar("POST", recurso.caminho(), recurso.corpo().apply(sequencia.incrementAndGet()));
+                if (resposta.statusCode() != 201) {
+                    throw new IllegalStateException("Falha ao semear " + recurso.caminho() + ": " + resposta.statusCode() + " " + resposta.body());
+                }
+                sementes.putIfAbsent(recurso.caminho(), id(resposta.body()));
+            }
+        }
+        log.info("Sementes criadas: {} por recurso", porRecurso);
+    }
+
+    private Map<String, Latencias> executar(int threads, int segundos) throws Exception {
+        long fim = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Map<String, Latencias>>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    Map<String, Latencias> medidas = new HashMap<>();
+                    while (System.nanoTime() < fim) {
+                        ciclo(recursos.get(ThreadLocalRandom.current().nextInt(recursos.size())), medidas);
+                    }
+                    return medidas;
+                }));
+            }
+            Map<String, Latencias> mescladas = new TreeMap<>();
+            for (Future<Map<String, Latencias>> worker : workers) {
+                worker.get().forEach((endpoint, latencias) ->
+                        mescladas.computeIfAbsent(endpoint, e -> new Latencias()).mesclar(latencias));
+            }
+            return mescladas;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void ciclo(Recurso recurso, Map<String, Latencias> medidas) throws IOException, InterruptedException {
+        String caminho = recurso.caminho();
+        String corpo = recurso.corpo().apply(sequencia.incrementAndGet());
+        HttpResponse<String> criado = medir(medidas, "POST " + caminho, "POST", caminho, corpo);
+        if (criado.statusCode() != 201) {
+            return;
+        }
+        String item = caminho + "/" + id(criado.body());
+        medir(medidas, "GET " + caminho + "/{id}", "GET", item, null);
+        medir(medidas, "PUT " + caminho + "/{id}", "PUT", item, corpo);
+        int pagina = ThreadLocalRandom.current().nextInt(5);
+        medir(medidas, "GET " + caminho, "GET", caminho + "?page=" + pagina + "&size=20", null);
+        medir(medidas, "DELETE " + caminho + "/{id}", "DELETE", item, null);
+    }
+
+    private HttpResponse<String> medir(Map<String, Latencias> medidas, String endpoint, String metodo, String caminho, String corpo)
+            throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        HttpResponse<String> resposta = enviar(metodo, caminho, corpo);
+        long duracao = System.nanoTime() - inicio;
+        medidas.computeIfAbsent(endpoint, e -> new Latencias()).registrar(duracao, resposta.statusCode() >= 400);
+        return resposta;
+    }
+
+    private HttpResponse<String> enviar(String metodo, String caminho, String corpo) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/hal+json");
+        if (corpo == null) {
+            request.method(metodo, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", "application/json").method(metodo, HttpRequest.BodyPublishers.ofString(corpo));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** CNPJ único por sequência; o CNPJ, CPF e e-mail têm índice único. */
+    private static String cnpj(long n, int filial) {
+        return "%02d.%03d.%03d/%04d-%02d".formatted(n / 1_000_000 % 100, n / 1000 % 1000, n % 1000, filial, n % 100);
+    }
+
+    private static long id(String corpo) {
+        Matcher matcher = ID.matcher(corpo);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Resposta sem id: " + corpo);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static void imprimir(Map<String, Object> endpoints, Map<String, Object> total) {
+        StringBuilder tabela = new StringBuilder(String.format("%n%-34s %8s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "req", "erros", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        endpoints.forEach((endpoint, resumo) -> linha(tabela, endpoint, resumo));
+        linha(tabela, "total", total);
+        System.out.println(tabela);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void linha(StringBuilder tabela, String endpoint, Object resumo) {
+        Map<String, Object> r = (Map<String, Object>) resumo;
+        tabela.append(String.format("%-34s %8d %6d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint,
+                r.get("requisicoes"), r.get("erros"), r.get("throughput"), r.get("p50Ms"), r.get("p95Ms"), r.get("p99Ms"), r.get("maxMs")));
+    }
+}
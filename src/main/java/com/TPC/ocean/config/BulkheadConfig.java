@@ -0,0 +1,52 @@
+package com.TPC.ocean.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Modo opcional (spring.threads.virtual.enabled=true): as requisições rodam em
+ * virtual threads e o acesso ao banco passa por um bulkhead do tamanho do pool Hikari.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class BulkheadConfig {
+    private static final int TAMANHO_PADRAO_HIKARI = 10;
+
+    @Bean
+    public static BeanPostProcessor dataSourceBulkhead() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    // o Hikari só aplica o tamanho padrão quando o pool inicia
+                    int tamanho = hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : TAMANHO_PADRAO_HIKARI;
+                    return new BulkheadDataSource(hikari, tamanho, hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            BulkheadDataSource bulkhead = DataSourceUnwrapper.unwrap(dataSource, BulkheadDataSource.class);
+            if (bulkhead == null) return;
+            Gauge.builder("db.bulkhead.available", bulkhead, BulkheadDataSource::getDisponiveis)
+                .description("Permissões livres no bulkhead do banco").register(registry);
+            Gauge.builder("db.bulkhead.queued", bulkhead, BulkheadDataSource::getAguardando)
+                .description("Threads aguardando o bulkhead do banco").register(registry);
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.TPC.ocean.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Limita as conexões em uso ao tamanho do pool com um semáforo justo. Virtual
+ * threads excedentes esperam no semáforo, que é barato, em vez de disputarem
+ * o pool; a permissão é devolvida quando a conexão é fechada.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    private final Semaphore permissoes;
+    private final long timeoutMillis;
+
+    public BulkheadDataSource(DataSource target, int permissoes, long timeoutMillis) {
+        super(target);
+        this.permissoes = new Semaphore(permissoes, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return liberarAoFechar(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return liberarAoFechar(() -> super.getConnection(username, password));
+    }
+
+    public int getDisponiveis() {
+        return permissoes.availablePermits();
+    }
+
+    public int getAguardando() {
+        return permissoes.getQueueLength();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permissoes.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Bulkhead do banco esgotado após " + timeoutMillis + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando o bulkhead do banco", e);
+        }
+    }
+
+    private Connection liberarAoFechar(ConnectionSupplier supplier) throws SQLException {
+        Connection connection;
+        try {
+            connection = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    if (fechada.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            permissoes.release();
+                        }
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
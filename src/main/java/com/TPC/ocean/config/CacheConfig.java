@@ -0,0 +1,63 @@
+package com.TPC.ocean.config;
+
+import java.time.Duration;
+import java.util.Comparator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+
+/**
+ * Cada cache nomeado em {@code ocean.cache.specs} recebe sua própria spec do
+ * Caffeine (tamanho máximo, TTL e estatísticas). Caches sem spec própria usam
+ * {@code spring.cache.caffeine.spec}. Os caches terminados em
+ * {@code -por-id} são {@link EntityCache}s.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
+public class CacheConfig {
+    /** Para caches por id sem expireAfterWrite, que só perdem entradas por tamanho. */
+    private static final Duration SEM_TTL = Duration.ofDays(1);
+
+    @Bean
+    public EntityVersions entityVersions(CacheSpecProperties properties, @Value("${spring.cache.caffeine.spec:}") String padrao) {
+        return new EntityVersions(properties.specs().entrySet().stream()
+            .filter(spec -> spec.getKey().endsWith(EntityCache.SUFIXO))
+            .map(spec -> ttl(spec.getValue()))
+            .max(Comparator.naturalOrder())
+            .orElseGet(() -> ttl(padrao)));
+    }
+
+    @Bean
+    public CaffeineCacheManager cacheManager(
+        CacheSpecProperties properties, EntityVersions entityVersions, @Value("${spring.cache.caffeine.spec:}") String padrao)
+    {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return name.endsWith(EntityCache.SUFIXO)
+                    ? new EntityCache(name, cache, isAllowNullValues(), entityVersions)
+                    : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        if (!padrao.isBlank()) {
+            cacheManager.setCacheSpecification(padrao);
+        }
+        properties.specs().forEach((name, spec) -> cacheManager.registerCustomCache(name, Caffeine.from(spec).build()));
+        return cacheManager;
+    }
+
+    private static Duration ttl(String spec) {
+        return Caffeine.from(spec).build().policy().expireAfterWrite()
+            .map(Policy.FixedExpiration::getExpiresAfter)
+            .orElse(SEM_TTL);
+    }
+}
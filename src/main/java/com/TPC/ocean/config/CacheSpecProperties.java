@@ -0,0 +1,12 @@
+package com.TPC.ocean.config;
+
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("ocean.cache")
+public record CacheSpecProperties(Map<String, String> specs) {
+    public CacheSpecProperties {
+        specs = specs == null ? Map.of() : specs;
+    }
+}
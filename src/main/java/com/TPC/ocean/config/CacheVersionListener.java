@@ -0,0 +1,77 @@
+package com.TPC.ocean.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.Exibicao;
+import com.TPC.ocean.model.Instituicao;
+import com.TPC.ocean.model.PessoaFisica;
+import com.TPC.ocean.model.Servico;
+import com.TPC.ocean.model.TermosCondicoes;
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.model.Usuario;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Incrementa, após o commit, a versão das listagens afetadas por uma escrita.
+ * Listagens que embutem a entidade alterada (por exemplo, transações exibem o
+ * contrato) também são invalidadas. O cache por id da própria entidade perde
+ * só a entrada escrita; os dos dependentes descartam, na leitura, as cópias
+ * que embutem uma versão anterior dela (ver {@link EntityCache}).
+ */
+@Component
+public class CacheVersionListener {
+    static final Map<Class<?>, List<String>> LISTAGENS = Map.of(
+        Empresa.class, List.of("empresas", "contratos", "servicos", "usuarios", "transacoes", "exibicoes", "termos-condicoes"),
+        Instituicao.class, List.of("instituicoes", "usuarios", "termos-condicoes"),
+        PessoaFisica.class, List.of("pessoas-fisicas", "usuarios", "termos-condicoes"),
+        Usuario.class, List.of("usuarios", "termos-condicoes"),
+        Contrato.class, List.of("contratos", "transacoes", "exibicoes"),
+        Transacao.class, List.of("transacoes", "exibicoes"),
+        Exibicao.class, List.of("exibicoes"),
+        Servico.class, List.of("servicos"),
+        TermosCondicoes.class, List.of("termos-condicoes")
+    );
+
+    @Autowired
+    CacheVersions versions;
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Object entity) {
+        BeanWrapper values = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        onWrite(Hibernate.getClass(entity), values.getPropertyValue("id"), (Long) values.getPropertyValue("versao"));
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        onWrite(Hibernate.getClass(entity), PropertyAccessorFactory.forBeanPropertyAccess(entity).getPropertyValue("id"));
+    }
+
+    /** Mesmo efeito para exclusões que não passam pelo ciclo de vida da entidade, como DELETE por JPQL. */
+    public void onWrite(Class<?> type, Object id) {
+        onWrite(type, id, null);
+    }
+
+    /** Para UPDATEs em massa: {@code version} é a versão gravada, ou {@code null} se o registro foi removido. */
+    public void onWrite(Class<?> type, Object id, Long version) {
+        List<String> listagens = LISTAGENS.get(type);
+        if (listagens == null) {
+            return;
+        }
+        versions.written(type, id, version);
+        listagens.forEach(versions::bump);
+        listagens.stream().findFirst().ifPresent(name -> versions.evict(name + EntityCache.SUFIXO, id));
+    }
+}
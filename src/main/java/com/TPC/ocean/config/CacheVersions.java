@@ -0,0 +1,135 @@
+package com.TPC.ocean.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Contador de versão por cache de listagem. A versão faz parte da chave das
+ * páginas em cache, então incrementá-la invalida todas as páginas antigas de
+ * uma vez; elas deixam de ser lidas e saem do cache por tamanho ou TTL.
+ * Dentro de uma transação os incrementos (e as escritas pedidas por
+ * {@link #written} e {@link #evict}) são acumulados e aplicados uma única vez
+ * por cache, após o commit.
+ *
+ * <p>O contador só vê escritas feitas por esta instância. Para que uma
+ * listagem alterada por outra instância ou direto no banco não responda 304
+ * para sempre, a versão também avança sozinha quando passa o expireAfterWrite
+ * do cache de listagem sem incremento; nesse ponto as páginas da versão
+ * anterior já teriam expirado de qualquer forma.
+ */
+@Component
+public class CacheVersions {
+    private record Written(Class<?> type, Object id, Long version) {}
+
+    private record Version(long value, long since) {}
+
+    private record Pending(Set<String> bumps, List<Written> writes, Set<Map.Entry<String, Object>> evictions) {}
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    EntityVersions entityVersions;
+
+    private final Map<String, AtomicReference<Version>> versions = new ConcurrentHashMap<>();
+    private final Map<String, Long> ttls = new ConcurrentHashMap<>();
+
+    public long current(String cacheName) {
+        long ttl = ttls.computeIfAbsent(cacheName, this::ttl);
+        long now = System.currentTimeMillis();
+        return counter(cacheName)
+            .updateAndGet(version -> now - version.since() >= ttl ? new Version(version.value() + 1, now) : version)
+            .value();
+    }
+
+    public void bump(String cacheName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(cacheName);
+            return;
+        }
+        pending().bumps().add(cacheName);
+    }
+
+    /** Registra a versão confirmada de uma entidade ({@code null} se removida), após o commit quando houver transação. */
+    public void written(Class<?> type, Object id, Long version) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entityVersions.registrar(type, id, version);
+            return;
+        }
+        pending().writes().add(new Written(type, id, version));
+    }
+
+    /** Remove uma entrada de um cache comum, após o commit quando houver transação. */
+    public void evict(String cacheName, Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(cacheName, key);
+            return;
+        }
+        pending().evictions().add(Map.entry(cacheName, key));
+    }
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending names = new Pending(new LinkedHashSet<>(), new ArrayList<>(), new LinkedHashSet<>());
+            TransactionSynchronizationManager.bindResource(this, names);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    names.writes().forEach(write -> entityVersions.registrar(write.type(), write.id(), write.version()));
+                    names.bumps().forEach(CacheVersions.this::increment);
+                    names.evictions().forEach(entry -> evictNow(entry.getKey(), entry.getValue()));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheVersions.this);
+                }
+            });
+            pending = names;
+        }
+        return pending;
+    }
+
+    private void evictNow(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void increment(String cacheName) {
+        long now = System.currentTimeMillis();
+        counter(cacheName).updateAndGet(version -> new Version(version.value() + 1, now));
+    }
+
+    private AtomicReference<Version> counter(String cacheName) {
+        return versions.computeIfAbsent(cacheName, name -> {
+            long now = System.currentTimeMillis();
+            return new AtomicReference<>(new Version(now, now));
+        });
+    }
+
+    /** expireAfterWrite do cache em milissegundos; sem TTL a versão só avança com escritas. */
+    private long ttl(String cacheName) {
+        return cacheManager.getCache(cacheName) instanceof CaffeineCache cache
+            ? cache.getNativeCache().policy().expireAfterWrite()
+                .map(expiration -> expiration.getExpiresAfter(TimeUnit.MILLISECONDS))
+                .orElse(Long.MAX_VALUE)
+            : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,31 @@
+package com.TPC.ocean.config;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+/**
+ * Acrescenta ao timer http.server.requests o controller e o método que
+ * atenderam a requisição (index, show, create, update, destroy...).
+ */
+@Component
+public class ControllerObservationConvention extends DefaultServerRequestObservationConvention {
+    private static final String NENHUM = "none";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        String controller = NENHUM;
+        String action = NENHUM;
+        if (context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            controller = handler.getBeanType().getSimpleName();
+            action = handler.getMethod().getName();
+        }
+        return super.getLowCardinalityKeyValues(context)
+            .and(KeyValue.of("controller", controller), KeyValue.of("action", action));
+    }
+}
@@ -0,0 +1,44 @@
+package com.TPC.ocean.config;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Cache por id de entidades. Uma cópia cuja entidade, ou alguma associação
+ * carregada com ela, já foi escrita depois de lida é descartada na leitura;
+ * assim uma escrita no pai não precisa esvaziar os caches dos dependentes.
+ * Pelo mesmo motivo um {@code put} de uma leitura que começou antes de uma
+ * escrita confirmada (e chega depois do evict dela) é ignorado, assim como
+ * um que substituiria uma cópia de versão mais nova.
+ */
+public class EntityCache extends CaffeineCache {
+    static final String SUFIXO = "-por-id";
+
+    private final EntityVersions versions;
+
+    public EntityCache(String name, Cache<Object, Object> cache, boolean allowNullValues, EntityVersions versions) {
+        super(name, cache, allowNullValues);
+        this.versions = versions;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object valor = super.lookup(key);
+        if (valor != null && !versions.atual(fromStoreValue(valor))) {
+            getNativeCache().asMap().remove(key, valor);
+            return null;
+        }
+        return valor;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (!versions.atual(value)) {
+            return;
+        }
+        Object novo = toStoreValue(value);
+        getNativeCache().asMap().compute(key, (chave, existente) ->
+            existente != null && versions.versao(fromStoreValue(existente)) > versions.versao(value) ? existente : novo);
+    }
+}
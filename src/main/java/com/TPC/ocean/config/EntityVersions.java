@@ -0,0 +1,84 @@
+package com.TPC.ocean.config;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.util.ReflectionUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.persistence.ManyToOne;
+
+/**
+ * Última versão confirmada de cada entidade escrita por esta instância. Os
+ * registros duram tanto quanto a cópia mais longa de um cache por id, então
+ * qualquer cópia anterior a uma escrita ainda encontra o registro dela.
+ * Entidades removidas ficam com a versão {@link #REMOVIDA}.
+ */
+public class EntityVersions {
+    static final long REMOVIDA = Long.MAX_VALUE;
+
+    private record Chave(Class<?> tipo, Object id) {}
+
+    private final Cache<Chave, Long> versoes;
+    private final Map<Class<?>, List<Field>> associacoes = new ConcurrentHashMap<>();
+
+    public EntityVersions(Duration duracao) {
+        versoes = Caffeine.newBuilder().expireAfterWrite(duracao).build();
+    }
+
+    /** {@code versao} nula indica remoção. */
+    public void registrar(Class<?> tipo, Object id, Long versao) {
+        versoes.asMap().merge(new Chave(tipo, id), versao == null ? REMOVIDA : versao, Math::max);
+    }
+
+    /**
+     * Falso se a entidade ou alguma associação carregada com ela (as que a
+     * serialização e a ETag do item mostram) for anterior à última escrita
+     * confirmada.
+     */
+    public boolean atual(Object entidade) {
+        if (entidade == null || !Hibernate.isInitialized(entidade)) {
+            return true;
+        }
+        Class<?> tipo = Hibernate.getClass(entidade);
+        BeanWrapper valores = PropertyAccessorFactory.forBeanPropertyAccess(entidade);
+        Long conhecida = versoes.getIfPresent(new Chave(tipo, valores.getPropertyValue("id")));
+        if (conhecida != null && conhecida > versao(valores)) {
+            return false;
+        }
+        for (Field associacao : associacoes.computeIfAbsent(tipo, EntityVersions::associacoes)) {
+            if (!atual(ReflectionUtils.getField(associacao, entidade))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Versão da entidade; 0 se ainda não tiver uma ou não for versionada. */
+    long versao(Object entidade) {
+        return entidade == null ? 0 : versao(PropertyAccessorFactory.forBeanPropertyAccess(entidade));
+    }
+
+    private static long versao(BeanWrapper valores) {
+        Object versao = valores.isReadableProperty("versao") ? valores.getPropertyValue("versao") : null;
+        return versao == null ? 0 : (Long) versao;
+    }
+
+    private static List<Field> associacoes(Class<?> tipo) {
+        List<Field> campos = new ArrayList<>();
+        ReflectionUtils.doWithFields(tipo, campo -> {
+            ReflectionUtils.makeAccessible(campo);
+            campos.add(campo);
+        }, campo -> campo.isAnnotationPresent(ManyToOne.class));
+        return campos;
+    }
+}
@@ -0,0 +1,19 @@
+package com.TPC.ocean.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+
+/**
+ * Associações LAZY que não foram carregadas pelo entity graph da consulta são
+ * serializadas apenas com o id, sem disparar SELECTs durante a serialização.
+ */
+@Configuration
+public class JacksonConfig {
+    @Bean
+    public Hibernate6Module hibernateModule() {
+        return new Hibernate6Module()
+            .enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+    }
+}
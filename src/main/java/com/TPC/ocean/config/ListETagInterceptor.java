@@ -0,0 +1,39 @@
+package com.TPC.ocean.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.TPC.ocean.util.ETags;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Envia uma ETag fraca nas listagens em cache, derivada da versão do cache do
+ * controller. Se o If-None-Match coincidir, responde 304 antes de chamar o
+ * handler, sem consultar o cache nem serializar a página. Como a versão
+ * avança ao fim do TTL do cache (ver {@link CacheVersions}), uma ETag não
+ * vale por mais tempo do que a página que ela representa ficaria em cache.
+ */
+@Component
+public class ListETagInterceptor implements HandlerInterceptor {
+    @Autowired
+    VersionedKeyGenerator keyGenerator;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+            || !handlerMethod.hasMethodAnnotation(Cacheable.class)
+            || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+
+        String etag = ETags.weak(keyGenerator.currentVersion(handlerMethod.getBeanType()));
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,44 @@
+package com.TPC.ocean.config;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Gera chaves no formato (versão do cache, método, parâmetros) usando o cache
+ * declarado no {@link CacheConfig} do controller.
+ */
+@Component("versionedKeyGenerator")
+public class VersionedKeyGenerator implements KeyGenerator {
+    @Autowired
+    CacheVersions versions;
+
+    private final Map<Class<?>, String> cacheNames = new ConcurrentHashMap<>();
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        return new SimpleKey(currentVersion(target.getClass()), method.getName(), SimpleKeyGenerator.generateKey(params));
+    }
+
+    /** Versão atual do cache de listagem do controller. */
+    long currentVersion(Class<?> controllerType) {
+        return versions.current(cacheNames.computeIfAbsent(ClassUtils.getUserClass(controllerType), this::cacheName));
+    }
+
+    private String cacheName(Class<?> type) {
+        CacheConfig config = AnnotatedElementUtils.findMergedAnnotation(type, CacheConfig.class);
+        if (config == null || config.cacheNames().length == 0) {
+            throw new IllegalStateException(type.getName() + " não declara @CacheConfig(cacheNames)");
+        }
+        return config.cacheNames()[0];
+    }
+}
@@ -0,0 +1,106 @@
+package com.TPC.ocean.controller;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.TPC.ocean.model.Exibicao;
+import com.TPC.ocean.model.ResultadoBusca;
+import com.TPC.ocean.model.Servico;
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.repository.ExibicaoRepository;
+import com.TPC.ocean.repository.ServicoRepository;
+import com.TPC.ocean.repository.TransacaoRepository;
+import com.TPC.ocean.service.BuscaService;
+import com.TPC.ocean.service.BuscaService.Tipo;
+import com.TPC.ocean.util.IndiceInvertido.Resultado;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/busca")
+@Tag(name = "Busca", description = "Busca textual nas descrições")
+public class BuscaController {
+    private static final int LIMITE_MAXIMO = 100;
+
+    @Autowired
+    BuscaService service;
+
+    @Autowired
+    ServicoRepository servicos;
+
+    @Autowired
+    TransacaoRepository transacoes;
+
+    @Autowired
+    ExibicaoRepository exibicoes;
+
+    @GetMapping("servicos")
+    @Operation(
+        summary = "Buscar Serviços",
+        description = "Retorna os serviços cuja descrição é mais relevante para os termos informados, do mais para o menos relevante"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Serviços encontrados"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public List<ResultadoBusca<Servico>> servicos(@RequestParam String q, @RequestParam(defaultValue = "10") int limite) {
+        return buscar(Tipo.SERVICO, q, limite, servicos, Servico::getId);
+    }
+
+    @GetMapping("transacoes")
+    @Operation(
+        summary = "Buscar Transações",
+        description = "Retorna as transações cuja descrição é mais relevante para os termos informados, da mais para a menos relevante"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Transações encontradas"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public List<ResultadoBusca<Transacao>> transacoes(@RequestParam String q, @RequestParam(defaultValue = "10") int limite) {
+        return buscar(Tipo.TRANSACAO, q, limite, transacoes, Transacao::getId);
+    }
+
+    @GetMapping("exibicoes")
+    @Operation(
+        summary = "Buscar Exibições",
+        description = "Retorna as exibições cuja descrição é mais relevante para os termos informados, da mais para a menos relevante"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exibições encontradas"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public List<ResultadoBusca<Exibicao>> exibicoes(@RequestParam String q, @RequestParam(defaultValue = "10") int limite) {
+        return buscar(Tipo.EXIBICAO, q, limite, exibicoes, Exibicao::getId);
+    }
+
+    private <T> List<ResultadoBusca<T>> buscar(
+        Tipo tipo, String q, int limite, JpaRepository<T, Long> repository, Function<T, Long> id)
+    {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+
+        List<Resultado> resultados = service.buscar(tipo, q, limite);
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, T> itens = repository.findAllById(resultados.stream().map(Resultado::id).toList()).stream()
+            .collect(Collectors.toMap(id, Function.identity()));
+        return resultados.stream()
+            .filter(resultado -> itens.containsKey(resultado.id()))
+            .map(resultado -> new ResultadoBusca<>(itens.get(resultado.id()), resultado.pontuacao()))
+            .toList();
+    }
+}
@@ -2,9 +2,10 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,54 +15,111 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.ContratoFiltro;
+import com.TPC.ocean.model.Empresa;
 import com.TPC.ocean.repository.ContratoRepository;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.service.ResumoFinanceiroService;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.EntityReferences;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/contratos")
-@CacheConfig(cacheNames = "contratos")
+@CacheConfig(cacheNames = "contratos", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Contratos", description = "Gerenciamento de contratos")
 public class ContratoController {
     @Autowired
     ContratoRepository repository;
 
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
+    @Autowired
+    ResumoFinanceiroService resumoService;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Autowired
     PagedResourcesAssembler<Contrato> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
     @GetMapping
     @Cacheable
     @Operation(
         summary = "Listar Contratos",
-        description = "Retorna uma lista paginada de contratos"
+        description = "Retorna uma lista paginada de contratos, com filtros opcionais por status, tipo, período de início e fim e valor"
     )
     @ApiResponses({ 
         @ApiResponse(responseCode = "200", description = "Contratos listados"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Contratos não encontrados")
     })
     public PagedModel<EntityModel<Contrato>> index(
         @PageableDefault(size = 10) Pageable pageable,
         @RequestParam(defaultValue = "id") String sort,
-        @RequestParam(defaultValue = "asc") String direction) 
+        @RequestParam(defaultValue = "asc") String direction,
+        @ParameterObject ContratoFiltro filtro)
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(Contrato.class, sort, direction);
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
-        Page<Contrato> page = repository.findAll(sortedPageable);
+        Page<Contrato> page = repository.findAll(filtro.toSpecification(), sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Contratos com Campos Selecionados",
+        description = "Retorna uma lista paginada de contratos apenas com os campos informados em fields, com os mesmos filtros da listagem; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Contratos listados"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction,
+        @ParameterObject ContratoFiltro filtro)
+    {
+        Sort sortBy = SortCatalog.sort(Contrato.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(Contrato.class, fields, filtro.toSpecification(), sortedPageable);
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Contrato por ID",
@@ -71,16 +129,17 @@ public class ContratoController {
         @ApiResponse(responseCode = "200", description = "Contrato listado"),
         @ApiResponse(responseCode = "404", description = "Contrato não encontrado")
     })
-    public EntityModel<Contrato> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Contrato>> show(@PathVariable Long id) {
         Contrato contrato = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contrato não encontrado")
         );
-        return contrato.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(contrato.versoes()))
+                .body(contrato.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Contrato",
         description = "Cadastra um novo contrato"
@@ -90,6 +149,7 @@ public class ContratoController {
         @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
     public ResponseEntity<Contrato> create(@RequestBody @Valid Contrato contrato) {
+        vincularReferencias(contrato);
         repository.save(contrato);
         return ResponseEntity
                 .created(contrato.toEntityModel().getRequiredLink("self").toUri())
@@ -98,7 +158,6 @@ public class ContratoController {
 
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Contrato",
         description = "Deleta um contrato específico"
@@ -106,18 +165,23 @@ public class ContratoController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Contrato deletado"),
         @ApiResponse(responseCode = "404", description = "Contrato não encontrado"),
-        @ApiResponse(responseCode = "401", description = "Não autorizado")
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contrato não encontrado")
-        );
-        repository.deleteById(id);
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        if (versao != null) {
+            escritaCondicionalService.excluir(Contrato.class, id, versao, "Contrato não encontrado");
+        } else if (repository.excluir(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contrato não encontrado");
+        } else {
+            cacheVersionListener.onWrite(Contrato.class, id);
+        }
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Contrato",
         description = "Atualiza um contrato específico"
@@ -126,23 +190,64 @@ public class ContratoController {
         @ApiResponse(responseCode = "200", description = "Contrato atualizado"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @ApiResponse(responseCode = "404", description = "Contrato não encontrado")
+        @ApiResponse(responseCode = "404", description = "Contrato não encontrado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Contrato> update(@PathVariable Long id, @RequestBody @Valid Contrato contratoAtualizado) {
-        Contrato contrato = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Contrato não encontrado")
-        );
-        
-        contrato.setEmpresa(contratoAtualizado.getEmpresa());
-        contrato.setTipoContrato(contratoAtualizado.getTipoContrato());
-        contrato.setDataInicio(contratoAtualizado.getDataInicio());
-        contrato.setDataFim(contratoAtualizado.getDataFim());
-        contrato.setValor(contratoAtualizado.getValor());
-        contrato.setStatus(contratoAtualizado.getStatus());
-        contrato.setAssinaturaPendente(contratoAtualizado.getAssinaturaPendente());
-        
-        repository.save(contrato);
-        
+    @Transactional
+    public ResponseEntity<Contrato> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid Contrato contratoAtualizado) {
+        vincularReferencias(contratoAtualizado);
+        Long versao = ETags.versao(ifMatch);
+        Contrato contrato;
+        if (versao != null) {
+            trocarEmpresa(id, null, contratoAtualizado.getEmpresa());
+            contrato = escritaCondicionalService.atualizar(contratoAtualizado, id, versao, "Contrato não encontrado");
+        } else {
+            contrato = entityManager.find(Contrato.class, id);
+            if (contrato == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contrato não encontrado");
+            }
+            trocarEmpresa(id, contrato.getEmpresa().getId(), contratoAtualizado.getEmpresa());
+            BeanUtils.copyProperties(contratoAtualizado, contrato, "id", "versao");
+        }
+
+        return ResponseEntity.ok(contrato);
+    }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Contrato Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de um contrato específico"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Contrato atualizado"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "404", description = "Contrato não encontrado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Contrato> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        Contrato contrato = entityManager.find(Contrato.class, id);
+        if (contrato == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contrato não encontrado");
+        }
+        escritaCondicionalService.exigirVersao(contrato.getVersao(), ETags.versao(ifMatch));
+
+        Long empresaAnterior = contrato.getEmpresa().getId();
+        mergePatchService.aplicar(contrato, patch);
+        trocarEmpresa(id, empresaAnterior, contrato.getEmpresa());
+
         return ResponseEntity.ok(contrato);
     }
+
+    /** Os resumos financeiros do contrato acompanham a troca de empresa. */
+    private void trocarEmpresa(Long id, Long empresaAnterior, Empresa novaEmpresa) {
+        if (novaEmpresa != null && !novaEmpresa.getId().equals(empresaAnterior)) {
+            resumoService.trocarEmpresa(id, empresaAnterior, novaEmpresa.getId());
+        }
+    }
+
+    private void vincularReferencias(Contrato contrato) {
+        contrato.setEmpresa(EntityReferences.bind(entityManager, Empresa.class, contrato.getEmpresa(), Empresa::getId));
+    }
 }
@@ -2,9 +2,9 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,31 +14,68 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.ExclusaoEmpresaStatus;
 import com.TPC.ocean.repository.EmpresaRepository;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.ExclusaoEmpresaService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.service.UnicidadeService;
+import com.TPC.ocean.service.UnicidadeService.Chave;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/empresas")
-@CacheConfig(cacheNames = "empresas")
+@CacheConfig(cacheNames = "empresas", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Empresas", description = "Gerenciamento de empresas")
 public class EmpresaController {
     @Autowired
     EmpresaRepository repository;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
+    @Autowired
+    ExclusaoEmpresaService exclusaoService;
+
+    @Autowired
+    UnicidadeService unicidadeService;
+
     @Autowired
     PagedResourcesAssembler<Empresa> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
     @GetMapping
     @Cacheable
     @Operation(
@@ -47,6 +84,7 @@ public class EmpresaController {
     )
     @ApiResponses({ 
         @ApiResponse(responseCode = "200", description = "Empresas listadas"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Empresas não encontradas")
     })
     public PagedModel<EntityModel<Empresa>> index(
@@ -54,14 +92,35 @@ public class EmpresaController {
         @RequestParam(defaultValue = "id") String sort,
         @RequestParam(defaultValue = "asc") String direction) 
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(Empresa.class, sort, direction);
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
         Page<Empresa> page = repository.findAll(sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Empresas com Campos Selecionados",
+        description = "Retorna uma lista paginada de empresas apenas com os campos informados em fields; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Empresas listadas"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction)
+    {
+        Sort sortBy = SortCatalog.sort(Empresa.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(Empresa.class, fields, sortedPageable);
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Empresa por ID",
@@ -71,26 +130,30 @@ public class EmpresaController {
         @ApiResponse(responseCode = "200", description = "Empresa listada"),
         @ApiResponse(responseCode = "404", description = "Empresa não encontrada")
     })
-    public EntityModel<Empresa> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Empresa>> show(@PathVariable Long id) {
         Empresa empresa = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada")
         );
-        return empresa.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(empresa.versoes()))
+                .body(empresa.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Empresa",
         description = "Cadastra uma nova empresa"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Empresa criada"),
-        @ApiResponse(responseCode = "400", description = "Requisição inválida")
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CNPJ já cadastrado")
     })
     public ResponseEntity<Empresa> create(@RequestBody @Valid Empresa empresa) {
+        unicidadeService.exigirUnico(Chave.EMPRESA_CNPJ, empresa.getCnpj(), null);
         repository.save(empresa);
+        unicidadeService.registrar(Chave.EMPRESA_CNPJ, empresa.getCnpj());
         return ResponseEntity
                 .created(empresa.toEntityModel().getRequiredLink("self").toUri())
                 .body(empresa);
@@ -98,7 +161,6 @@ public class EmpresaController {
 
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Empresa",
         description = "Deleta uma empresa específica"
@@ -106,18 +168,59 @@ public class EmpresaController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Empresa deletada"),
         @ApiResponse(responseCode = "404", description = "Empresa não encontrada"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        if (versao != null) {
+            escritaCondicionalService.excluir(Empresa.class, id, versao, "Empresa não encontrada");
+        } else if (repository.excluir(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada");
+        } else {
+            cacheVersionListener.onWrite(Empresa.class, id);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping(path = "{id}", params = "cascade=true")
+    @Operation(
+        summary = "Deletar Empresa com Dependentes",
+        description = "Agenda a exclusão da empresa com exibições, transações, contratos, serviços, termos e usuários vinculados; a resposta aponta para o recurso de status"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Exclusão agendada"),
+        @ApiResponse(responseCode = "404", description = "Empresa não encontrada"),
         @ApiResponse(responseCode = "401", description = "Não autorizado")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada")
+    public ResponseEntity<ExclusaoEmpresaStatus> destroyCascade(@PathVariable Long id) {
+        if (!repository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada");
+        }
+        ExclusaoEmpresaStatus status = exclusaoService.agendar(id);
+        return ResponseEntity
+                .accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath().path("/empresas/exclusoes/{ticket}").buildAndExpand(status.ticket()).toUri())
+                .body(status);
+    }
+
+    @GetMapping("exclusoes/{ticket}")
+    @Operation(
+        summary = "Status da Exclusão de Empresa",
+        description = "Retorna o andamento da exclusão em cascata, com a quantidade de registros removidos por etapa"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Status retornado"),
+        @ApiResponse(responseCode = "404", description = "Ticket não encontrado")
+    })
+    public ExclusaoEmpresaStatus statusExclusao(@PathVariable String ticket) {
+        return exclusaoService.status(ticket).orElseThrow(
+            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ticket não encontrado")
         );
-        repository.deleteById(id);
-        return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Empresa",
         description = "Atualiza uma empresa específica"
@@ -125,22 +228,55 @@ public class EmpresaController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Empresa atualizada"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CNPJ já cadastrado"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @ApiResponse(responseCode = "404", description = "Empresa não encontrada")
+        @ApiResponse(responseCode = "404", description = "Empresa não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Empresa> update(@PathVariable Long id, @RequestBody @Valid Empresa empresaAtualizada) {
-        Empresa empresa = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada")
-        );
-        
-        empresa.setNome(empresaAtualizada.getNome());
-        empresa.setCnpj(empresaAtualizada.getCnpj());
-        empresa.setEmail(empresaAtualizada.getEmail());
-        empresa.setTelefone(empresaAtualizada.getTelefone());
-        empresa.setEndereco(empresaAtualizada.getEndereco());
-        
-        repository.save(empresa);
-        
+    @Transactional
+    public ResponseEntity<Empresa> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid Empresa empresaAtualizada) {
+        unicidadeService.exigirUnico(Chave.EMPRESA_CNPJ, empresaAtualizada.getCnpj(), id);
+        Long versao = ETags.versao(ifMatch);
+        Empresa empresa;
+        if (versao != null) {
+            empresa = escritaCondicionalService.atualizar(empresaAtualizada, id, versao, "Empresa não encontrada");
+        } else {
+            empresa = entityManager.find(Empresa.class, id);
+            if (empresa == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada");
+            }
+            BeanUtils.copyProperties(empresaAtualizada, empresa, "id", "versao");
+        }
+        unicidadeService.registrar(Chave.EMPRESA_CNPJ, empresa.getCnpj());
+
+        return ResponseEntity.ok(empresa);
+    }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Empresa Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de uma empresa específica"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Empresa atualizada"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CNPJ já cadastrado"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "404", description = "Empresa não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Empresa> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        Empresa empresa = entityManager.find(Empresa.class, id);
+        if (empresa == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Empresa não encontrada");
+        }
+        escritaCondicionalService.exigirVersao(empresa.getVersao(), ETags.versao(ifMatch));
+
+        unicidadeService.exigirUnico(Chave.EMPRESA_CNPJ, patch.path("cnpj").textValue(), id);
+        mergePatchService.aplicar(empresa, patch);
+        unicidadeService.registrar(Chave.EMPRESA_CNPJ, empresa.getCnpj());
+
         return ResponseEntity.ok(empresa);
     }
 }
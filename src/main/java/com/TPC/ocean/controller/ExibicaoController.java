@@ -2,66 +2,169 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import java.util.List;
+
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.model.Exibicao;
+import com.TPC.ocean.model.Transacao;
 import com.TPC.ocean.repository.ExibicaoRepository;
+import com.TPC.ocean.service.BuscaService.Tipo;
+import com.TPC.ocean.service.BuscaService;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.ExportService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.EntityReferences;
+import com.TPC.ocean.util.KeysetPagination;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/exibicoes")
-@CacheConfig(cacheNames = "exibicoes")
+@CacheConfig(cacheNames = "exibicoes", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Exibições", description = "Gerenciamento de exibições")
 public class ExibicaoController {
+    private static final List<String> COLUNAS_EXPORTACAO = List.of("id", "transacao", "valor", "dataExibicao", "descricao");
+
     @Autowired
     ExibicaoRepository repository;
 
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Autowired
     PagedResourcesAssembler<Exibicao> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
+    @Autowired
+    BuscaService buscaService;
+
+    @Autowired
+    SlicedResourcesAssembler<Exibicao> slicedAssembler;
+
+    @Autowired
+    ExportService exportService;
+
     @GetMapping
     @Cacheable
     @Operation(
         summary = "Listar Exibições",
-        description = "Retorna uma lista paginada de exibições"
+        description = "Retorna uma lista paginada de exibições; com o parâmetro after a paginação é feita por cursor e com withTotal=false o total não é calculado"
     )
     @ApiResponses({ 
         @ApiResponse(responseCode = "200", description = "Exibições listadas"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Exibições não encontradas")
     })
-    public PagedModel<EntityModel<Exibicao>> index(
+    public CollectionModel<EntityModel<Exibicao>> index(
         @PageableDefault(size = 10) Pageable pageable,
         @RequestParam(defaultValue = "id") String sort,
-        @RequestParam(defaultValue = "asc") String direction) 
+        @RequestParam(defaultValue = "asc") String direction,
+        @RequestParam(name = KeysetPagination.PARAM, required = false) String after,
+        @RequestParam(defaultValue = "true") boolean withTotal)
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(Exibicao.class, sort, direction);
+
+        if (after != null) {
+            Window<Exibicao> window = repository.findBy(
+                KeysetPagination.position(after, sortBy, Exibicao.class), sortBy, Limit.of(pageable.getPageSize())
+            );
+            return KeysetPagination.toModel(window, Exibicao::toEntityModel);
+        }
+
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
+        if (!withTotal) {
+            Slice<Exibicao> slice = repository.findAllBy(sortedPageable);
+            return slicedAssembler.toModel(slice);
+        }
+
         Page<Exibicao> page = repository.findAll(sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Exibições com Campos Selecionados",
+        description = "Retorna uma lista paginada de exibições apenas com os campos informados em fields; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exibições listadas"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction)
+    {
+        Sort sortBy = SortCatalog.sort(Exibicao.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(Exibicao.class, fields, sortedPageable);
+    }
+
+    @GetMapping("exportar")
+    @Operation(
+        summary = "Exportar Exibições",
+        description = "Exporta todas as exibições em NDJSON ou CSV, em streaming"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exibições exportadas"),
+        @ApiResponse(responseCode = "400", description = "Formato inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = "ndjson") String formato) {
+        return exportService.exportar("exibicoes", formato, repository::streamAll, COLUNAS_EXPORTACAO,
+            e -> new Object[] { e.getId(), e.getTransacao().getId(), e.getValor(), e.getDataExibicao(), e.getDescricao() }
+        );
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Exibição por ID",
@@ -71,16 +174,17 @@ public class ExibicaoController {
         @ApiResponse(responseCode = "200", description = "Exibição listada"),
         @ApiResponse(responseCode = "404", description = "Exibição não encontrada")
     })
-    public EntityModel<Exibicao> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Exibicao>> show(@PathVariable Long id) {
         Exibicao exibicao = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Exibição não encontrada")
         );
-        return exibicao.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(exibicao.versoes()))
+                .body(exibicao.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Exibição",
         description = "Cadastra uma nova exibição"
@@ -90,7 +194,9 @@ public class ExibicaoController {
         @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
     public ResponseEntity<Exibicao> create(@RequestBody @Valid Exibicao exibicao) {
+        vincularReferencias(exibicao);
         repository.save(exibicao);
+        buscaService.indexar(Tipo.EXIBICAO, exibicao.getId(), exibicao.getDescricao());
         return ResponseEntity
                 .created(exibicao.toEntityModel().getRequiredLink("self").toUri())
                 .body(exibicao);
@@ -98,7 +204,6 @@ public class ExibicaoController {
 
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Exibição",
         description = "Deleta uma exibição específica"
@@ -106,18 +211,24 @@ public class ExibicaoController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Exibição deletada"),
         @ApiResponse(responseCode = "404", description = "Exibição não encontrada"),
-        @ApiResponse(responseCode = "401", description = "Não autorizado")
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Exibição não encontrada")
-        );
-        repository.deleteById(id);
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        if (versao != null) {
+            escritaCondicionalService.excluir(Exibicao.class, id, versao, "Exibição não encontrada");
+        } else if (repository.excluir(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Exibição não encontrada");
+        } else {
+            cacheVersionListener.onWrite(Exibicao.class, id);
+        }
+        buscaService.remover(Tipo.EXIBICAO, id);
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Exibição",
         description = "Atualiza uma exibição específica"
@@ -126,20 +237,55 @@ public class ExibicaoController {
         @ApiResponse(responseCode = "200", description = "Exibição atualizada"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @ApiResponse(responseCode = "404", description = "Exibição não encontrada")
+        @ApiResponse(responseCode = "404", description = "Exibição não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Exibicao> update(@PathVariable Long id, @RequestBody @Valid Exibicao exibicaoAtualizada) {
-        Exibicao exibicao = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Exibição não encontrada")
-        );
-        
-        exibicao.setTransacao(exibicaoAtualizada.getTransacao());
-        exibicao.setValor(exibicaoAtualizada.getValor());
-        exibicao.setDataExibicao(exibicaoAtualizada.getDataExibicao());
-        exibicao.setDescricao(exibicaoAtualizada.getDescricao());
-        
-        repository.save(exibicao);
-        
+    @Transactional
+    public ResponseEntity<Exibicao> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid Exibicao exibicaoAtualizada) {
+        vincularReferencias(exibicaoAtualizada);
+        Long versao = ETags.versao(ifMatch);
+        Exibicao exibicao;
+        if (versao != null) {
+            exibicao = escritaCondicionalService.atualizar(exibicaoAtualizada, id, versao, "Exibição não encontrada");
+        } else {
+            exibicao = entityManager.find(Exibicao.class, id);
+            if (exibicao == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Exibição não encontrada");
+            }
+            BeanUtils.copyProperties(exibicaoAtualizada, exibicao, "id", "versao");
+        }
+        buscaService.indexar(Tipo.EXIBICAO, exibicao.getId(), exibicao.getDescricao());
+
+        return ResponseEntity.ok(exibicao);
+    }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Exibição Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de uma exibição específica"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Exibição atualizada"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "404", description = "Exibição não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Exibicao> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        Exibicao exibicao = entityManager.find(Exibicao.class, id);
+        if (exibicao == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Exibição não encontrada");
+        }
+        escritaCondicionalService.exigirVersao(exibicao.getVersao(), ETags.versao(ifMatch));
+
+        mergePatchService.aplicar(exibicao, patch);
+        buscaService.indexar(Tipo.EXIBICAO, exibicao.getId(), exibicao.getDescricao());
+
         return ResponseEntity.ok(exibicao);
     }
+
+    private void vincularReferencias(Exibicao exibicao) {
+        exibicao.setTransacao(EntityReferences.bind(entityManager, Transacao.class, exibicao.getTransacao(), Transacao::getId));
+    }
 }
@@ -2,9 +2,9 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,31 +14,62 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.model.Instituicao;
 import com.TPC.ocean.repository.InstituicaoRepository;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.service.UnicidadeService;
+import com.TPC.ocean.service.UnicidadeService.Chave;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/instituicoes")
-@CacheConfig(cacheNames = "instituicoes")
+@CacheConfig(cacheNames = "instituicoes", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Instituições", description = "Gerenciamento de instituições")
 public class InstituicaoController {
     @Autowired
     InstituicaoRepository repository;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
+    @Autowired
+    UnicidadeService unicidadeService;
+
     @Autowired
     PagedResourcesAssembler<Instituicao> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
     @GetMapping
     @Cacheable
     @Operation(
@@ -47,6 +78,7 @@ public class InstituicaoController {
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Instituições listadas"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Instituições não encontradas")
     })
     public PagedModel<EntityModel<Instituicao>> index(
@@ -54,14 +86,35 @@ public class InstituicaoController {
         @RequestParam(defaultValue = "id") String sort,
         @RequestParam(defaultValue = "asc") String direction) 
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(Instituicao.class, sort, direction);
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
         Page<Instituicao> page = repository.findAll(sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Instituições com Campos Selecionados",
+        description = "Retorna uma lista paginada de instituições apenas com os campos informados em fields; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Instituições listadas"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction)
+    {
+        Sort sortBy = SortCatalog.sort(Instituicao.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(Instituicao.class, fields, sortedPageable);
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Instituição por ID",
@@ -71,26 +124,30 @@ public class InstituicaoController {
         @ApiResponse(responseCode = "200", description = "Instituição listada"),
         @ApiResponse(responseCode = "404", description = "Instituição não encontrada")
     })
-    public EntityModel<Instituicao> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Instituicao>> show(@PathVariable Long id) {
         Instituicao instituicao = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Instituição não encontrada")
         );
-        return instituicao.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(instituicao.versoes()))
+                .body(instituicao.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Instituição",
         description = "Cria uma nova instituição"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Instituição criada"),
-        @ApiResponse(responseCode = "400", description = "Requisição inválida")
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CNPJ já cadastrado")
     })
     public ResponseEntity<Instituicao> create(@RequestBody @Valid Instituicao instituicao) {
+        unicidadeService.exigirUnico(Chave.INSTITUICAO_CNPJ, instituicao.getCnpj(), null);
         repository.save(instituicao);
+        unicidadeService.registrar(Chave.INSTITUICAO_CNPJ, instituicao.getCnpj());
         return ResponseEntity
                 .created(instituicao.toEntityModel().getRequiredLink("self").toUri())
                 .body(instituicao);
@@ -98,7 +155,6 @@ public class InstituicaoController {
 
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Instituição",
         description = "Deleta uma instituição específica"
@@ -106,18 +162,23 @@ public class InstituicaoController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Instituição deletada"),
         @ApiResponse(responseCode = "404", description = "Instituição não encontrada"),
-        @ApiResponse(responseCode = "401", description = "Não autorizado")
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Instituição não encontrada")
-        );
-        repository.deleteById(id);
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        if (versao != null) {
+            escritaCondicionalService.excluir(Instituicao.class, id, versao, "Instituição não encontrada");
+        } else if (repository.excluir(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Instituição não encontrada");
+        } else {
+            cacheVersionListener.onWrite(Instituicao.class, id);
+        }
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Instituição",
         description = "Atualiza uma instituição específica"
@@ -125,22 +186,55 @@ public class InstituicaoController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Instituição atualizada"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CNPJ já cadastrado"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @ApiResponse(responseCode = "404", description = "Instituição não encontrada")
+        @ApiResponse(responseCode = "404", description = "Instituição não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Instituicao> update(@PathVariable Long id, @RequestBody @Valid Instituicao instituicaoAtualizada) {
-        Instituicao instituicao = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Instituição não encontrada")
-        );
-        
-        instituicao.setNome(instituicaoAtualizada.getNome());
-        instituicao.setCnpj(instituicaoAtualizada.getCnpj());
-        instituicao.setEmail(instituicaoAtualizada.getEmail());
-        instituicao.setTelefone(instituicaoAtualizada.getTelefone());
-        instituicao.setEndereco(instituicaoAtualizada.getEndereco());
-        
-        repository.save(instituicao);
-        
+    @Transactional
+    public ResponseEntity<Instituicao> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid Instituicao instituicaoAtualizada) {
+        unicidadeService.exigirUnico(Chave.INSTITUICAO_CNPJ, instituicaoAtualizada.getCnpj(), id);
+        Long versao = ETags.versao(ifMatch);
+        Instituicao instituicao;
+        if (versao != null) {
+            instituicao = escritaCondicionalService.atualizar(instituicaoAtualizada, id, versao, "Instituição não encontrada");
+        } else {
+            instituicao = entityManager.find(Instituicao.class, id);
+            if (instituicao == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Instituição não encontrada");
+            }
+            BeanUtils.copyProperties(instituicaoAtualizada, instituicao, "id", "versao");
+        }
+        unicidadeService.registrar(Chave.INSTITUICAO_CNPJ, instituicao.getCnpj());
+
+        return ResponseEntity.ok(instituicao);
+    }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Instituição Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de uma instituição específica"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Instituição atualizada"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CNPJ já cadastrado"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "404", description = "Instituição não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Instituicao> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        Instituicao instituicao = entityManager.find(Instituicao.class, id);
+        if (instituicao == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Instituição não encontrada");
+        }
+        escritaCondicionalService.exigirVersao(instituicao.getVersao(), ETags.versao(ifMatch));
+
+        unicidadeService.exigirUnico(Chave.INSTITUICAO_CNPJ, patch.path("cnpj").textValue(), id);
+        mergePatchService.aplicar(instituicao, patch);
+        unicidadeService.registrar(Chave.INSTITUICAO_CNPJ, instituicao.getCnpj());
+
         return ResponseEntity.ok(instituicao);
     }
 }
@@ -2,9 +2,9 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,31 +14,62 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.model.PessoaFisica;
 import com.TPC.ocean.repository.PessoaFisicaRepository;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.service.UnicidadeService;
+import com.TPC.ocean.service.UnicidadeService.Chave;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/pessoas-fisicas")
-@CacheConfig(cacheNames = "pessoas-fisicas")
+@CacheConfig(cacheNames = "pessoas-fisicas", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Pessoas Físicas", description = "Gerenciamento de pessoas físicas")
 public class PessoaFisicaController {
     @Autowired
     PessoaFisicaRepository repository;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
+    @Autowired
+    UnicidadeService unicidadeService;
+
     @Autowired
     PagedResourcesAssembler<PessoaFisica> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
     @GetMapping
     @Cacheable
     @Operation(
@@ -47,6 +78,7 @@ public class PessoaFisicaController {
     )
     @ApiResponses({ 
         @ApiResponse(responseCode = "200", description = "Pessoas Físicas listadas"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Pessoas Físicas não encontradas")
     })
     public PagedModel<EntityModel<PessoaFisica>> index(
@@ -54,14 +86,35 @@ public class PessoaFisicaController {
         @RequestParam(defaultValue = "id") String sort,
         @RequestParam(defaultValue = "asc") String direction) 
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(PessoaFisica.class, sort, direction);
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
         Page<PessoaFisica> page = repository.findAll(sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Pessoas Físicas com Campos Selecionados",
+        description = "Retorna uma lista paginada de pessoas físicas apenas com os campos informados em fields; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Pessoas Físicas listadas"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction)
+    {
+        Sort sortBy = SortCatalog.sort(PessoaFisica.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(PessoaFisica.class, fields, sortedPageable);
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Pessoa Física por ID",
@@ -71,26 +124,30 @@ public class PessoaFisicaController {
         @ApiResponse(responseCode = "200", description = "Pessoa Fisica listada"),
         @ApiResponse(responseCode = "404", description = "Pessoa Fisica não encontrada")
     })
-    public EntityModel<PessoaFisica> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<PessoaFisica>> show(@PathVariable Long id) {
         PessoaFisica pessoaFisica = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pessoa Fisica não encontrada")
         );
-        return pessoaFisica.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(pessoaFisica.versoes()))
+                .body(pessoaFisica.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Pessoa Física",
         description = "Cadastra uma nova pessoa física"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Pessoa Física criada"),
-        @ApiResponse(responseCode = "400", description = "Requisição inválida")
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CPF já cadastrado")
     })
     public ResponseEntity<PessoaFisica> create(@RequestBody @Valid PessoaFisica pessoaFisica) {
+        unicidadeService.exigirUnico(Chave.PESSOA_FISICA_CPF, pessoaFisica.getCpf(), null);
         repository.save(pessoaFisica);
+        unicidadeService.registrar(Chave.PESSOA_FISICA_CPF, pessoaFisica.getCpf());
         return ResponseEntity
                 .created(pessoaFisica.toEntityModel().getRequiredLink("self").toUri())
                 .body(pessoaFisica);
@@ -98,7 +155,6 @@ public class PessoaFisicaController {
 
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Pessoa Física",
         description = "Deleta uma pessoa física específica"
@@ -106,18 +162,23 @@ public class PessoaFisicaController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Pessoa Física deletada"),
         @ApiResponse(responseCode = "404", description = "Pessoa Física não encontrada"),
-        @ApiResponse(responseCode = "401", description = "Não autorizado")
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pessoa Física não encontrada")
-        );
-        repository.deleteById(id);
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        if (versao != null) {
+            escritaCondicionalService.excluir(PessoaFisica.class, id, versao, "Pessoa Física não encontrada");
+        } else if (repository.excluir(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Pessoa Física não encontrada");
+        } else {
+            cacheVersionListener.onWrite(PessoaFisica.class, id);
+        }
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Pessoa Física",
         description = "Atualiza uma pessoa física específica"
@@ -125,21 +186,55 @@ public class PessoaFisicaController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Pessoa Física atualizada"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CPF já cadastrado"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @ApiResponse(responseCode = "404", description = "Pessoa Física não encontrada")
+        @ApiResponse(responseCode = "404", description = "Pessoa Física não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<PessoaFisica> update(@PathVariable Long id, @RequestBody @Valid PessoaFisica pessoaFisicaAtualizado) {
-        PessoaFisica pessoaFisica = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pessoa Física não encontrada")
-        );
-        
-        pessoaFisica.setNome(pessoaFisicaAtualizado.getNome());
-        pessoaFisica.setCpf(pessoaFisicaAtualizado.getCpf());
-        pessoaFisica.setEmail(pessoaFisicaAtualizado.getEmail());
-        pessoaFisica.setSenha(pessoaFisicaAtualizado.getSenha());
-        
-        repository.save(pessoaFisica);
-        
+    @Transactional
+    public ResponseEntity<PessoaFisica> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid PessoaFisica pessoaFisicaAtualizado) {
+        unicidadeService.exigirUnico(Chave.PESSOA_FISICA_CPF, pessoaFisicaAtualizado.getCpf(), id);
+        Long versao = ETags.versao(ifMatch);
+        PessoaFisica pessoaFisica;
+        if (versao != null) {
+            pessoaFisica = escritaCondicionalService.atualizar(pessoaFisicaAtualizado, id, versao, "Pessoa Física não encontrada");
+        } else {
+            pessoaFisica = entityManager.find(PessoaFisica.class, id);
+            if (pessoaFisica == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Pessoa Física não encontrada");
+            }
+            BeanUtils.copyProperties(pessoaFisicaAtualizado, pessoaFisica, "id", "versao");
+        }
+        unicidadeService.registrar(Chave.PESSOA_FISICA_CPF, pessoaFisica.getCpf());
+
+        return ResponseEntity.ok(pessoaFisica);
+    }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Pessoa Física Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de uma pessoa física específica"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Pessoa Física atualizada"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "CPF já cadastrado"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "404", description = "Pessoa Física não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<PessoaFisica> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        PessoaFisica pessoaFisica = entityManager.find(PessoaFisica.class, id);
+        if (pessoaFisica == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Pessoa Física não encontrada");
+        }
+        escritaCondicionalService.exigirVersao(pessoaFisica.getVersao(), ETags.versao(ifMatch));
+
+        unicidadeService.exigirUnico(Chave.PESSOA_FISICA_CPF, patch.path("cpf").textValue(), id);
+        mergePatchService.aplicar(pessoaFisica, patch);
+        unicidadeService.registrar(Chave.PESSOA_FISICA_CPF, pessoaFisica.getCpf());
+
         return ResponseEntity.ok(pessoaFisica);
     }
 }
@@ -0,0 +1,113 @@
+package com.TPC.ocean.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.TPC.ocean.model.ResumoFinanceiro;
+import com.TPC.ocean.model.ResumoFinanceiro.Nivel;
+import com.TPC.ocean.repository.ResumoFinanceiroRepository;
+import com.TPC.ocean.service.ResumoFinanceiroService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/resumos-financeiros")
+@Tag(name = "Resumos Financeiros", description = "Totais de transações mantidos a cada escrita")
+public class ResumoFinanceiroController {
+    @Autowired
+    ResumoFinanceiroRepository repository;
+
+    @Autowired
+    ResumoFinanceiroService service;
+
+    @GetMapping("empresas/{id}")
+    @Operation(
+        summary = "Resumo Financeiro da Empresa",
+        description = "Retorna a quantidade e a soma do valor de todas as transações da empresa"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumo listado"),
+        @ApiResponse(responseCode = "404", description = "Resumo não encontrado")
+    })
+    public ResumoFinanceiro empresa(@PathVariable Long id) {
+        return buscar(ResumoFinanceiro.chave(Nivel.EMPRESA, id, null, null));
+    }
+
+    @GetMapping("contratos/{id}")
+    @Operation(
+        summary = "Resumo Financeiro do Contrato",
+        description = "Retorna a quantidade e a soma do valor de todas as transações do contrato"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumo listado"),
+        @ApiResponse(responseCode = "404", description = "Resumo não encontrado")
+    })
+    public ResumoFinanceiro contrato(@PathVariable Long id) {
+        return buscar(ResumoFinanceiro.chave(Nivel.CONTRATO, null, id, null));
+    }
+
+    @GetMapping("empresas/{id}/dias")
+    @Operation(
+        summary = "Resumo Financeiro Diário da Empresa",
+        description = "Retorna os totais diários das transações da empresa no período informado"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumos listados")
+    })
+    public List<ResumoFinanceiro> empresaPorDia(
+        @PathVariable Long id,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate)
+    {
+        return repository.findByNivelAndEmpresaIdAndDiaBetweenOrderByDia(Nivel.EMPRESA_DIA, id, de, ate);
+    }
+
+    @GetMapping("contratos/{id}/dias")
+    @Operation(
+        summary = "Resumo Financeiro Diário do Contrato",
+        description = "Retorna os totais diários das transações do contrato no período informado"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumos listados")
+    })
+    public List<ResumoFinanceiro> contratoPorDia(
+        @PathVariable Long id,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate)
+    {
+        return repository.findByNivelAndContratoIdAndDiaBetweenOrderByDia(Nivel.CONTRATO_DIA, id, de, ate);
+    }
+
+    @PostMapping("reconstrucao")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(
+        summary = "Reconstruir Resumos Financeiros",
+        description = "Recalcula em segundo plano todos os resumos a partir das transações"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Reconstrução agendada"),
+        @ApiResponse(responseCode = "409", description = "Reconstrução já em andamento")
+    })
+    public ResponseEntity<Object> reconstruir() {
+        if (!service.agendarReconstrucao()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Reconstrução já em andamento");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    private ResumoFinanceiro buscar(String chave) {
+        return repository.findByChave(chave).orElseThrow(
+            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Resumo não encontrado")
+        );
+    }
+}
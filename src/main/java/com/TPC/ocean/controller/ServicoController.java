@@ -2,9 +2,10 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,54 +15,112 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.TPC.ocean.config.CacheVersionListener;
+import com.TPC.ocean.model.Empresa;
 import com.TPC.ocean.model.Servico;
+import com.TPC.ocean.model.ServicoFiltro;
 import com.TPC.ocean.repository.ServicoRepository;
+import com.TPC.ocean.service.BuscaService.Tipo;
+import com.TPC.ocean.service.BuscaService;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.EntityReferences;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/servicos")
-@CacheConfig(cacheNames = "servicos")
+@CacheConfig(cacheNames = "servicos", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Serviços", description = "Gerenciamento de serviços")
 public class ServicoController {
     @Autowired
     ServicoRepository repository;
 
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Autowired
     PagedResourcesAssembler<Servico> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
+    @Autowired
+    BuscaService buscaService;
+
     @GetMapping
     @Cacheable
     @Operation(
         summary = "Listar Serviços",
-        description = "Retorna uma lista paginada de serviços"
+        description = "Retorna uma lista paginada de serviços, com filtros opcionais por status e data do serviço"
     )
     @ApiResponses({ 
         @ApiResponse(responseCode = "200", description = "Serviços listados"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Serviços não encontrados")
     })
     public PagedModel<EntityModel<Servico>> index(
         @PageableDefault(size = 10) Pageable pageable,
         @RequestParam(defaultValue = "id") String sort,
-        @RequestParam(defaultValue = "asc") String direction) 
+        @RequestParam(defaultValue = "asc") String direction,
+        @ParameterObject ServicoFiltro filtro)
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(Servico.class, sort, direction);
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
-        Page<Servico> page = repository.findAll(sortedPageable);
+        Page<Servico> page = repository.findAll(filtro.toSpecification(), sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Serviços com Campos Selecionados",
+        description = "Retorna uma lista paginada de serviços apenas com os campos informados em fields, com os mesmos filtros da listagem; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Serviços listados"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction,
+        @ParameterObject ServicoFiltro filtro)
+    {
+        Sort sortBy = SortCatalog.sort(Servico.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(Servico.class, fields, filtro.toSpecification(), sortedPageable);
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Serviço por ID",
@@ -71,16 +130,17 @@ public class ServicoController {
         @ApiResponse(responseCode = "200", description = "Serviço listado"),
         @ApiResponse(responseCode = "404", description = "Serviço não encontrado")
     })
-    public EntityModel<Servico> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Servico>> show(@PathVariable Long id) {
         Servico servico = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado")
         );
-        return servico.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(servico.versoes()))
+                .body(servico.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Serviço",
         description = "Cadastra um novo serviço"
@@ -90,7 +150,9 @@ public class ServicoController {
         @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
     public ResponseEntity<Servico> create(@RequestBody @Valid Servico servico) {
+        vincularReferencias(servico);
         repository.save(servico);
+        buscaService.indexar(Tipo.SERVICO, servico.getId(), servico.getDescricao());
         return ResponseEntity
                 .created(servico.toEntityModel().getRequiredLink("self").toUri())
                 .body(servico);
@@ -98,7 +160,6 @@ public class ServicoController {
 
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Serviço",
         description = "Deleta um serviço"
@@ -106,18 +167,24 @@ public class ServicoController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Serviço deletado"),
         @ApiResponse(responseCode = "404", description = "Serviço não encontrado"),
-        @ApiResponse(responseCode = "401", description = "Não autorizado")
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado")
-        );
-        repository.deleteById(id);
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        if (versao != null) {
+            escritaCondicionalService.excluir(Servico.class, id, versao, "Serviço não encontrado");
+        } else if (repository.excluir(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado");
+        } else {
+            cacheVersionListener.onWrite(Servico.class, id);
+        }
+        buscaService.remover(Tipo.SERVICO, id);
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Serviço",
         description = "Atualiza um serviço específico"
@@ -126,20 +193,55 @@ public class ServicoController {
         @ApiResponse(responseCode = "200", description = "Serviço atualizado"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @ApiResponse(responseCode = "404", description = "Serviço não encontrado")
+        @ApiResponse(responseCode = "404", description = "Serviço não encontrado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Servico> update(@PathVariable Long id, @RequestBody @Valid Servico servicoAtualizado) {
-        Servico servico = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado")
-        );
-        
-        servico.setEmpresa(servicoAtualizado.getEmpresa());
-        servico.setDataServico(servicoAtualizado.getDataServico());
-        servico.setDescricao(servicoAtualizado.getDescricao());
-        servico.setStatus(servicoAtualizado.getStatus());
-        
-        repository.save(servico);
-        
+    @Transactional
+    public ResponseEntity<Servico> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid Servico servicoAtualizado) {
+        vincularReferencias(servicoAtualizado);
+        Long versao = ETags.versao(ifMatch);
+        Servico servico;
+        if (versao != null) {
+            servico = escritaCondicionalService.atualizar(servicoAtualizado, id, versao, "Serviço não encontrado");
+        } else {
+            servico = entityManager.find(Servico.class, id);
+            if (servico == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado");
+            }
+            BeanUtils.copyProperties(servicoAtualizado, servico, "id", "versao");
+        }
+        buscaService.indexar(Tipo.SERVICO, servico.getId(), servico.getDescricao());
+
         return ResponseEntity.ok(servico);
     }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Serviço Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de um serviço específico"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Serviço atualizado"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "404", description = "Serviço não encontrado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Servico> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        Servico servico = entityManager.find(Servico.class, id);
+        if (servico == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Serviço não encontrado");
+        }
+        escritaCondicionalService.exigirVersao(servico.getVersao(), ETags.versao(ifMatch));
+
+        mergePatchService.aplicar(servico, patch);
+        buscaService.indexar(Tipo.SERVICO, servico.getId(), servico.getDescricao());
+
+        return ResponseEntity.ok(servico);
+    }
+
+    private void vincularReferencias(Servico servico) {
+        servico.setEmpresa(EntityReferences.bind(entityManager, Empresa.class, servico.getEmpresa(), Empresa::getId));
+    }
 }
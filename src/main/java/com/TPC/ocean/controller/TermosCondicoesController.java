@@ -2,9 +2,9 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,31 +14,59 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.model.TermosCondicoes;
+import com.TPC.ocean.model.Usuario;
 import com.TPC.ocean.repository.TermosCondicoesRepository;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.EntityReferences;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/termos-condicoes")
-@CacheConfig(cacheNames = "termos-condicoes")
+@CacheConfig(cacheNames = "termos-condicoes", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Termos e Condições", description = "Gerenciamento de termos e condições")
 public class TermosCondicoesController {
     @Autowired
     TermosCondicoesRepository repository;
 
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Autowired
     PagedResourcesAssembler<TermosCondicoes> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
     @GetMapping
     @Cacheable
     @Operation(
@@ -47,6 +75,7 @@ public class TermosCondicoesController {
     )
     @ApiResponses({ 
         @ApiResponse(responseCode = "200", description = "Termos e Condições listados"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Termos e Condições não encontrados")
     })
     public PagedModel<EntityModel<TermosCondicoes>> index(
@@ -54,14 +83,35 @@ public class TermosCondicoesController {
         @RequestParam(defaultValue = "id") String sort,
         @RequestParam(defaultValue = "asc") String direction) 
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(TermosCondicoes.class, sort, direction);
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
         Page<TermosCondicoes> page = repository.findAll(sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Termos e Condições com Campos Selecionados",
+        description = "Retorna uma lista paginada de Termos e Condições apenas com os campos informados em fields; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Termos e Condições listados"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction)
+    {
+        Sort sortBy = SortCatalog.sort(TermosCondicoes.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(TermosCondicoes.class, fields, sortedPageable);
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Termos e Condições por ID",
@@ -71,16 +121,17 @@ public class TermosCondicoesController {
         @ApiResponse(responseCode = "200", description = "Termos e Condições listados"),
         @ApiResponse(responseCode = "404", description = "Termos e Condições não encontrados")
     })
-    public EntityModel<TermosCondicoes> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<TermosCondicoes>> show(@PathVariable Long id) {
         TermosCondicoes termosCondicoes = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Informações de Termos e Condições não encontradas")
         );
-        return termosCondicoes.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(termosCondicoes.versoes()))
+                .body(termosCondicoes.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Termos e Condições",
         description = "Cadastra uma nova informação de termos e condições"
@@ -90,6 +141,7 @@ public class TermosCondicoesController {
         @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
     public ResponseEntity<TermosCondicoes> create(@RequestBody @Valid TermosCondicoes termosCondicoes) {
+        vincularReferencias(termosCondicoes);
         repository.save(termosCondicoes);
         return ResponseEntity
                 .created(termosCondicoes.toEntityModel().getRequiredLink("self").toUri())
@@ -98,7 +150,6 @@ public class TermosCondicoesController {
 
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Termos e Condições",
         description = "Deleta uma informação de Termos e Condições específica"
@@ -106,18 +157,23 @@ public class TermosCondicoesController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Termos e Condições deletados"),
         @ApiResponse(responseCode = "404", description = "Termos e Condições não encontrados"),
-        @ApiResponse(responseCode = "401", description = "Sem autorização")
+        @ApiResponse(responseCode = "401", description = "Sem autorização"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Termos e Condições não encontrados")
-        );
-        repository.deleteById(id);
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        if (versao != null) {
+            escritaCondicionalService.excluir(TermosCondicoes.class, id, versao, "Termos e Condições não encontrados");
+        } else if (repository.excluir(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Termos e Condições não encontrados");
+        } else {
+            cacheVersionListener.onWrite(TermosCondicoes.class, id);
+        }
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Termos e Condições",
         description = "Atualiza as informações de Termos e Condições específicas"
@@ -126,19 +182,53 @@ public class TermosCondicoesController {
         @ApiResponse(responseCode = "200", description = "Termos e Condições atualizado"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
         @ApiResponse(responseCode = "401", description = "Sem autorização"),
-        @ApiResponse(responseCode = "404", description = "Termos e Condições não encontrados")
+        @ApiResponse(responseCode = "404", description = "Termos e Condições não encontrados"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<TermosCondicoes> update(@PathVariable Long id, @RequestBody @Valid TermosCondicoes termosCondicoesAtualizado) {
-        TermosCondicoes termosCondicoes = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Termos e Condições não encontrados")
-        );
-        
-        termosCondicoes.setUsuario(termosCondicoesAtualizado.getUsuario());
-        termosCondicoes.setAceitou(termosCondicoesAtualizado.getAceitou());
-        termosCondicoes.setDataAceite(termosCondicoesAtualizado.getDataAceite());
-        
-        repository.save(termosCondicoes);
-        
+    @Transactional
+    public ResponseEntity<TermosCondicoes> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid TermosCondicoes termosCondicoesAtualizado) {
+        vincularReferencias(termosCondicoesAtualizado);
+        Long versao = ETags.versao(ifMatch);
+        TermosCondicoes termosCondicoes;
+        if (versao != null) {
+            termosCondicoes = escritaCondicionalService.atualizar(termosCondicoesAtualizado, id, versao, "Termos e Condições não encontrados");
+        } else {
+            termosCondicoes = entityManager.find(TermosCondicoes.class, id);
+            if (termosCondicoes == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Termos e Condições não encontrados");
+            }
+            BeanUtils.copyProperties(termosCondicoesAtualizado, termosCondicoes, "id", "versao");
+        }
+
         return ResponseEntity.ok(termosCondicoes);
     }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Termos e Condições Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de Termos e Condições específicos"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Termos e Condições atualizado"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "401", description = "Sem autorização"),
+        @ApiResponse(responseCode = "404", description = "Termos e Condições não encontrados"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<TermosCondicoes> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        TermosCondicoes termosCondicoes = entityManager.find(TermosCondicoes.class, id);
+        if (termosCondicoes == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Termos e Condições não encontrados");
+        }
+        escritaCondicionalService.exigirVersao(termosCondicoes.getVersao(), ETags.versao(ifMatch));
+
+        mergePatchService.aplicar(termosCondicoes, patch);
+
+        return ResponseEntity.ok(termosCondicoes);
+    }
+
+    private void vincularReferencias(TermosCondicoes termosCondicoes) {
+        termosCondicoes.setUsuario(EntityReferences.bind(entityManager, Usuario.class, termosCondicoes.getUsuario(), Usuario::getId));
+    }
 }
@@ -2,66 +2,250 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.TPC.ocean.config.CacheVersionListener;
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.IngestaoStatus;
+import com.TPC.ocean.model.TotalMensalTransacoes;
+import com.TPC.ocean.model.TotalTransacoes;
 import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.model.TransacaoFiltro;
+import com.TPC.ocean.model.TransacaoLote;
+import com.TPC.ocean.repository.ContratoRepository;
 import com.TPC.ocean.repository.TransacaoRepository;
+import com.TPC.ocean.service.BuscaService.Tipo;
+import com.TPC.ocean.service.BuscaService;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.ExportService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.service.ResumoFinanceiroService.Movimento;
+import com.TPC.ocean.service.ResumoFinanceiroService;
+import com.TPC.ocean.service.TransacaoFilaService;
+import com.TPC.ocean.service.TransacaoIngestService;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.EntityReferences;
+import com.TPC.ocean.util.KeysetPagination;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/transacoes")
-@CacheConfig(cacheNames = "transacoes")
+@CacheConfig(cacheNames = "transacoes", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Transações", description = "Gerenciamento de transações")
 public class TransacaoController {
+    private static final List<String> COLUNAS_EXPORTACAO = List.of("id", "contrato", "data", "valor", "descricao");
+
     @Autowired
     TransacaoRepository repository;
 
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
     @Autowired
     PagedResourcesAssembler<Transacao> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
+    @Autowired
+    BuscaService buscaService;
+
+    @Autowired
+    SlicedResourcesAssembler<Transacao> slicedAssembler;
+
+    @Autowired
+    ExportService exportService;
+
+    @Autowired
+    TransacaoIngestService ingestService;
+
+    @Autowired
+    ResumoFinanceiroService resumoService;
+
+    @Autowired
+    TransacaoFilaService filaService;
+
+    @Autowired
+    ContratoRepository contratoRepository;
+
     @GetMapping
     @Cacheable
     @Operation(
         summary = "Listar Transações",
-        description = "Retorna uma lista paginada de transações"
+        description = "Retorna uma lista paginada de transações, com filtros opcionais por período e valor; com o parâmetro after a paginação é feita por cursor e com withTotal=false o total não é calculado"
     )
     @ApiResponses({ 
         @ApiResponse(responseCode = "200", description = "Transações listadas"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Transações não encontradas")
     })
-    public PagedModel<EntityModel<Transacao>> index(
+    public CollectionModel<EntityModel<Transacao>> index(
         @PageableDefault(size = 10) Pageable pageable,
         @RequestParam(defaultValue = "id") String sort,
-        @RequestParam(defaultValue = "asc") String direction) 
+        @RequestParam(defaultValue = "asc") String direction,
+        @RequestParam(name = KeysetPagination.PARAM, required = false) String after,
+        @RequestParam(defaultValue = "true") boolean withTotal,
+        @ParameterObject TransacaoFiltro filtro)
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(Transacao.class, sort, direction);
+
+        if (after != null) {
+            ScrollPosition position = KeysetPagination.position(after, sortBy, Transacao.class);
+            Limit limit = Limit.of(pageable.getPageSize());
+            Window<Transacao> window = filtro.vazio()
+                ? repository.findBy(position, sortBy, limit)
+                : repository.findBy(filtro.toSpecification(), position, sortBy, limit);
+            return KeysetPagination.toModel(window, Transacao::toEntityModel);
+        }
+
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
-        Page<Transacao> page = repository.findAll(sortedPageable);
+        if (!withTotal) {
+            Slice<Transacao> slice = filtro.vazio()
+                ? repository.findAllBy(sortedPageable)
+                : repository.findAllBy(filtro.toSpecification(), sortedPageable);
+            return slicedAssembler.toModel(slice);
+        }
+
+        Page<Transacao> page = repository.findAll(filtro.toSpecification(), sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Transações com Campos Selecionados",
+        description = "Retorna uma lista paginada de transações apenas com os campos informados em fields, com os mesmos filtros da listagem; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Transações listadas"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction,
+        @ParameterObject TransacaoFiltro filtro)
+    {
+        Sort sortBy = SortCatalog.sort(Transacao.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(Transacao.class, fields, filtro.toSpecification(), sortedPageable);
+    }
+
+    @GetMapping("exportar")
+    @Operation(
+        summary = "Exportar Transações",
+        description = "Exporta todas as transações em NDJSON ou CSV, em streaming"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Transações exportadas"),
+        @ApiResponse(responseCode = "400", description = "Formato inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = "ndjson") String formato) {
+        return exportService.exportar("transacoes", formato, repository::streamAll, COLUNAS_EXPORTACAO,
+            t -> new Object[] { t.getId(), t.getContrato().getId(), t.getData(), t.getValor(), t.getDescricao() }
+        );
+    }
+
+    @GetMapping("totais/contratos")
+    @Cacheable
+    @Operation(
+        summary = "Totais de Transações por Contrato",
+        description = "Retorna quantidade, soma e média do valor das transações agrupadas por contrato"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Totais calculados")
+    })
+    public List<TotalTransacoes> totaisPorContrato(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate)
+    {
+        return repository.totaisPorContrato(de, ate);
+    }
+
+    @GetMapping("totais/empresas")
+    @Cacheable
+    @Operation(
+        summary = "Totais de Transações por Empresa",
+        description = "Retorna quantidade, soma e média do valor das transações agrupadas pela empresa do contrato"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Totais calculados")
+    })
+    public List<TotalTransacoes> totaisPorEmpresa(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate)
+    {
+        return repository.totaisPorEmpresa(de, ate);
+    }
+
+    @GetMapping("totais/meses")
+    @Cacheable
+    @Operation(
+        summary = "Totais de Transações por Mês",
+        description = "Retorna quantidade, soma e média do valor das transações agrupadas por ano e mês"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Totais calculados")
+    })
+    public List<TotalMensalTransacoes> totaisPorMes(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate)
+    {
+        return repository.totaisPorMes(de, ate);
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Transação por ID",
@@ -71,16 +255,17 @@ public class TransacaoController {
         @ApiResponse(responseCode = "200", description = "Transação listada"),
         @ApiResponse(responseCode = "404", description = "Transação não encontrada")
     })
-    public EntityModel<Transacao> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Transacao>> show(@PathVariable Long id) {
         Transacao transacao = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transação não encontrada")
         );
-        return transacao.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(transacao.versoes()))
+                .body(transacao.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Transação",
         description = "Cadastra uma nova transação"
@@ -89,16 +274,83 @@ public class TransacaoController {
         @ApiResponse(responseCode = "201", description = "Transação criada"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida")
     })
+    @Transactional
     public ResponseEntity<Transacao> create(@RequestBody @Valid Transacao transacao) {
+        vincularReferencias(transacao);
         repository.save(transacao);
+        buscaService.indexar(Tipo.TRANSACAO, transacao.getId(), transacao.getDescricao());
+        resumoService.aplicar(List.of(Movimento.entrada(transacao)));
         return ResponseEntity
                 .created(transacao.toEntityModel().getRequiredLink("self").toUri())
                 .body(transacao);
     }
 
+    @PostMapping("lote")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(
+        summary = "Cadastrar Transações em Lote",
+        description = "Cadastra várias transações em uma única requisição e retorna os ids gerados"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Transações criadas"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida")
+    })
+    public ResponseEntity<List<Long>> createAll(@RequestBody @Valid TransacaoLote lote) {
+        // @NotNull aceita {"contrato":{}}; sem o id a transação não tem a que se ligar
+        for (int i = 0; i < lote.transacoes().size(); i++) {
+            if (lote.transacoes().get(i).getContrato().getId() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o id do contrato em transacoes[" + i + "]");
+            }
+        }
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ingestService.inserir(lote.transacoes()));
+    }
+
+    @PostMapping("fila")
+    @Operation(
+        summary = "Enfileirar Transação",
+        description = "Valida a transação e a enfileira para gravação em grupo; a resposta aponta para o recurso de status"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "202", description = "Transação aceita"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "404", description = "Contrato não encontrado"),
+        @ApiResponse(responseCode = "429", description = "Fila de transações cheia")
+    })
+    public ResponseEntity<IngestaoStatus> enfileirar(@RequestBody @Valid Transacao transacao) {
+        Long contratoId = transacao.getContrato().getId();
+        if (contratoId == null || !contratoRepository.existsById(contratoId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Contrato não encontrado");
+        }
+        return filaService.enfileirar(transacao)
+                .map(status -> ResponseEntity
+                        .accepted()
+                        .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{ticket}").buildAndExpand(status.ticket()).toUri())
+                        .body(status))
+                .orElseGet(() -> ResponseEntity
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    @GetMapping("fila/{ticket}")
+    @Operation(
+        summary = "Status da Transação Enfileirada",
+        description = "Retorna se a transação enfileirada está pendente, gravada (com o id gerado) ou se falhou"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Status retornado"),
+        @ApiResponse(responseCode = "404", description = "Ticket não encontrado")
+    })
+    public IngestaoStatus statusFila(@PathVariable String ticket) {
+        return filaService.status(ticket).orElseThrow(
+            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ticket não encontrado")
+        );
+    }
+
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Transação",
         description = "Deleta uma transação específica"
@@ -106,18 +358,24 @@ public class TransacaoController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Transação deletada"),
         @ApiResponse(responseCode = "404", description = "Transação não encontrada"),
-        @ApiResponse(responseCode = "401", description = "Não autorizado")
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transação não encontrada")
-        );
-        repository.deleteById(id);
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        Transacao transacao = anterior(id, versao);
+        try {
+            escritaCondicionalService.excluir(Transacao.class, id, transacao.getVersao(), "Transação não encontrada");
+        } catch (ResponseStatusException e) {
+            throw conflito(e, versao, id);
+        }
+        resumoService.aplicar(List.of(Movimento.saida(transacao)));
+        buscaService.remover(Tipo.TRANSACAO, id);
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Transação",
         description = "Atualiza uma transação específica"
@@ -126,20 +384,82 @@ public class TransacaoController {
         @ApiResponse(responseCode = "200", description = "Transação atualizada"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @ApiResponse(responseCode = "404", description = "Transação não encontrada")
+        @ApiResponse(responseCode = "404", description = "Transação não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Transacao> update(@PathVariable Long id, @RequestBody @Valid Transacao transacaoAtualizada) {
-        Transacao transacao = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transação não encontrada")
-        );
-        
-        transacao.setContrato(transacaoAtualizada.getContrato());
-        transacao.setData(transacaoAtualizada.getData());
-        transacao.setValor(transacaoAtualizada.getValor());
-        transacao.setDescricao(transacaoAtualizada.getDescricao());
-        
-        repository.save(transacao);
-        
+    @Transactional
+    public ResponseEntity<Transacao> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid Transacao transacaoAtualizada) {
+        Long versao = ETags.versao(ifMatch);
+        Transacao anterior = anterior(id, versao);
+        Movimento saida = Movimento.saida(anterior);
+
+        vincularReferencias(transacaoAtualizada);
+        Transacao transacao;
+        try {
+            transacao = escritaCondicionalService.atualizar(transacaoAtualizada, id, anterior.getVersao(), "Transação não encontrada");
+        } catch (ResponseStatusException e) {
+            throw conflito(e, versao, id);
+        }
+        buscaService.indexar(Tipo.TRANSACAO, transacao.getId(), transacao.getDescricao());
+        resumoService.aplicar(List.of(saida, Movimento.entrada(transacao)));
+
         return ResponseEntity.ok(transacao);
     }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Transação Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de uma transação específica"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Transação atualizada"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "404", description = "Transação não encontrada"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Transacao> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        Transacao transacao = entityManager.find(Transacao.class, id);
+        if (transacao == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Transação não encontrada");
+        }
+        escritaCondicionalService.exigirVersao(transacao.getVersao(), ETags.versao(ifMatch));
+        Movimento saida = Movimento.saida(transacao);
+
+        mergePatchService.aplicar(transacao, patch);
+        // o UPDATE com a versão lida vai antes do resumo, na mesma ordem de locks do PUT
+        repository.flush();
+        buscaService.indexar(Tipo.TRANSACAO, transacao.getId(), transacao.getDescricao());
+        resumoService.aplicar(List.of(saida, Movimento.entrada(transacao)));
+
+        return ResponseEntity.ok(transacao);
+    }
+
+    /**
+     * Valores atuais da transação, lidos sem lock: a escrita seguinte é
+     * condicionada à versão lida, então a variação do resumo calculada a
+     * partir deles só é aplicada se a linha não mudou nesse intervalo.
+     */
+    private Transacao anterior(Long id, Long versaoInformada) {
+        Transacao transacao = entityManager.find(Transacao.class, id);
+        if (transacao == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Transação não encontrada");
+        }
+        escritaCondicionalService.exigirVersao(transacao.getVersao(), versaoInformada);
+        entityManager.detach(transacao);
+        return transacao;
+    }
+
+    /** Sem If-Match, perder a corrida para outra escrita é um 409, como nos demais recursos. */
+    private RuntimeException conflito(ResponseStatusException e, Long versaoInformada, Long id) {
+        if (versaoInformada == null && e.getStatusCode() == HttpStatus.PRECONDITION_FAILED) {
+            return new ObjectOptimisticLockingFailureException(Transacao.class, id);
+        }
+        return e;
+    }
+
+    private void vincularReferencias(Transacao transacao) {
+        transacao.setContrato(EntityReferences.bind(entityManager, Contrato.class, transacao.getContrato(), Contrato::getId));
+    }
 }
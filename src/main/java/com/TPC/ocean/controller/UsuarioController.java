@@ -2,9 +2,9 @@ package com.TPC.ocean.controller;
 
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -14,31 +14,66 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.TPC.ocean.config.CacheVersionListener;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.Instituicao;
+import com.TPC.ocean.model.PessoaFisica;
 import com.TPC.ocean.model.Usuario;
 import com.TPC.ocean.repository.UsuarioRepository;
+import com.TPC.ocean.service.EscritaCondicionalService;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ProjectionService;
+import com.TPC.ocean.service.UnicidadeService;
+import com.TPC.ocean.service.UnicidadeService.Chave;
+import com.TPC.ocean.util.ETags;
+import com.TPC.ocean.util.EntityReferences;
+import com.TPC.ocean.util.SortCatalog;
+import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/usuarios")
-@CacheConfig(cacheNames = "usuarios")
+@CacheConfig(cacheNames = "usuarios", keyGenerator = "versionedKeyGenerator")
 @Tag(name = "Usuários", description = "Gerenciamento de usuários")
 public class UsuarioController {
     @Autowired
     UsuarioRepository repository;
 
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    MergePatchService mergePatchService;
+
+    @Autowired
+    EscritaCondicionalService escritaCondicionalService;
+
+    @Autowired
+    UnicidadeService unicidadeService;
+
+    @Autowired
+    EntityManager entityManager;
+
     @Autowired
     PagedResourcesAssembler<Usuario> assembler;
 
+    @Autowired
+    ProjectionService projectionService;
+
     @GetMapping
     @Cacheable
     @Operation(
@@ -47,6 +82,7 @@ public class UsuarioController {
     )
     @ApiResponses({ 
         @ApiResponse(responseCode = "200", description = "Usuários listados"),
+        @ApiResponse(responseCode = "400", description = "Ordenação inválida"),
         @ApiResponse(responseCode = "404", description = "Usuários não encontrados")
     })
     public PagedModel<EntityModel<Usuario>> index(
@@ -54,14 +90,35 @@ public class UsuarioController {
         @RequestParam(defaultValue = "id") String sort,
         @RequestParam(defaultValue = "asc") String direction) 
     {
-        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
-        Sort sortBy = Sort.by(sortDirection, sort);
+        Sort sortBy = SortCatalog.sort(Usuario.class, sort, direction);
         Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
 
         Page<Usuario> page = repository.findAll(sortedPageable);
         return assembler.toModel(page);
     }
 
+    @GetMapping(params = ProjectionService.PARAM)
+    @Cacheable
+    @Operation(
+        summary = "Listar Usuários com Campos Selecionados",
+        description = "Retorna uma lista paginada de usuários apenas com os campos informados em fields; associações trazem só o id"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Usuários listados"),
+        @ApiResponse(responseCode = "400", description = "Campo inválido")
+    })
+    public PagedModel<EmbeddedWrapper> indexFields(
+        @RequestParam(ProjectionService.PARAM) String fields,
+        @PageableDefault(size = 10) Pageable pageable,
+        @RequestParam(defaultValue = "id") String sort,
+        @RequestParam(defaultValue = "asc") String direction)
+    {
+        Sort sortBy = SortCatalog.sort(Usuario.class, sort, direction);
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sortBy);
+
+        return projectionService.listar(Usuario.class, fields, sortedPageable);
+    }
+
     @GetMapping("{id}")
     @Operation(
         summary = "Listar Usuário por ID",
@@ -71,26 +128,31 @@ public class UsuarioController {
         @ApiResponse(responseCode = "200", description = "Usuário listado"),
         @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
     })
-    public EntityModel<Usuario> show(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Usuario>> show(@PathVariable Long id) {
         Usuario usuario = repository.findById(id).orElseThrow(
             () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado")
         );
-        return usuario.toEntityModel();
+        return ResponseEntity.ok()
+                .eTag(ETags.strong(usuario.versoes()))
+                .body(usuario.toEntityModel());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Cadastrar Usuário",
         description = "Cadastra um novo usuário"
     )
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Usuário criado"),
-        @ApiResponse(responseCode = "400", description = "Requisição inválida")
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "E-mail já cadastrado")
     })
     public ResponseEntity<Usuario> create(@RequestBody @Valid Usuario usuario) {
+        unicidadeService.exigirUnico(Chave.USUARIO_EMAIL, usuario.getEmail(), null);
+        vincularReferencias(usuario);
         repository.save(usuario);
+        unicidadeService.registrar(Chave.USUARIO_EMAIL, usuario.getEmail());
         return ResponseEntity
                 .created(usuario.toEntityModel().getRequiredLink("self").toUri())
                 .body(usuario);
@@ -98,7 +160,6 @@ public class UsuarioController {
 
     @DeleteMapping("{id}")
     @ResponseStatus(NO_CONTENT)
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Deletar Usuário",
         description = "Deleta um usuário específico"
@@ -106,18 +167,23 @@ public class UsuarioController {
     @ApiResponses({
         @ApiResponse(responseCode = "204", description = "Usuário deletado"),
         @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
-        @ApiResponse(responseCode = "401", description = "Não autorizado")
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Object> destroy(@PathVariable Long id) {
-        repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado")
-        );
-        repository.deleteById(id);
+    @Transactional
+    public ResponseEntity<Object> destroy(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long versao = ETags.versao(ifMatch);
+        if (versao != null) {
+            escritaCondicionalService.excluir(Usuario.class, id, versao, "Usuário não encontrado");
+        } else if (repository.excluir(id) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+        } else {
+            cacheVersionListener.onWrite(Usuario.class, id);
+        }
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("{id}")
-    @CacheEvict(allEntries = true)
     @Operation(
         summary = "Atualizar Usuário",
         description = "Atualiza um usuário específico"
@@ -125,24 +191,62 @@ public class UsuarioController {
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Usuário atualizado"),
         @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "E-mail já cadastrado"),
         @ApiResponse(responseCode = "401", description = "Não autorizado"),
-        @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
+        @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
     })
-    public ResponseEntity<Usuario> update(@PathVariable Long id, @RequestBody @Valid Usuario usuarioAtualizado) {
-        Usuario usuario = repository.findById(id).orElseThrow(
-            () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado")
-        );
-        
-        usuario.setNome(usuarioAtualizado.getNome());
-        usuario.setEmail(usuarioAtualizado.getEmail());
-        usuario.setSenha(usuarioAtualizado.getSenha());
-        usuario.setTipo(usuarioAtualizado.getTipo());
-        usuario.setEmpresa(usuarioAtualizado.getEmpresa());
-        usuario.setInstituicao(usuarioAtualizado.getInstituicao());
-        usuario.setPessoaFisica(usuarioAtualizado.getPessoaFisica());
-        
-        repository.save(usuario);
-        
+    @Transactional
+    public ResponseEntity<Usuario> update(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody @Valid Usuario usuarioAtualizado) {
+        unicidadeService.exigirUnico(Chave.USUARIO_EMAIL, usuarioAtualizado.getEmail(), id);
+        vincularReferencias(usuarioAtualizado);
+        Long versao = ETags.versao(ifMatch);
+        Usuario usuario;
+        if (versao != null) {
+            usuario = escritaCondicionalService.atualizar(usuarioAtualizado, id, versao, "Usuário não encontrado");
+        } else {
+            usuario = entityManager.find(Usuario.class, id);
+            if (usuario == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+            }
+            BeanUtils.copyProperties(usuarioAtualizado, usuario, "id", "versao");
+        }
+        unicidadeService.registrar(Chave.USUARIO_EMAIL, usuario.getEmail());
+
         return ResponseEntity.ok(usuario);
     }
+
+    @PatchMapping(path = "{id}", consumes = MergePatchService.MEDIA_TYPE)
+    @Operation(
+        summary = "Atualizar Usuário Parcialmente",
+        description = "Atualiza apenas os campos informados (JSON Merge Patch) de um usuário específico"
+    )
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Usuário atualizado"),
+        @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+        @ApiResponse(responseCode = "409", description = "E-mail já cadastrado"),
+        @ApiResponse(responseCode = "401", description = "Não autorizado"),
+        @ApiResponse(responseCode = "404", description = "Usuário não encontrado"),
+        @ApiResponse(responseCode = "412", description = "Versão diferente da informada em If-Match")
+    })
+    @Transactional
+    public ResponseEntity<Usuario> patch(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, @RequestBody JsonNode patch) {
+        Usuario usuario = entityManager.find(Usuario.class, id);
+        if (usuario == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+        }
+        escritaCondicionalService.exigirVersao(usuario.getVersao(), ETags.versao(ifMatch));
+
+        unicidadeService.exigirUnico(Chave.USUARIO_EMAIL, patch.path("email").textValue(), id);
+        mergePatchService.aplicar(usuario, patch);
+        unicidadeService.registrar(Chave.USUARIO_EMAIL, usuario.getEmail());
+
+        return ResponseEntity.ok(usuario);
+    }
+
+    private void vincularReferencias(Usuario usuario) {
+        usuario.setEmpresa(EntityReferences.bind(entityManager, Empresa.class, usuario.getEmpresa(), Empresa::getId));
+        usuario.setInstituicao(EntityReferences.bind(entityManager, Instituicao.class, usuario.getInstituicao(), Instituicao::getId));
+        usuario.setPessoaFisica(EntityReferences.bind(entityManager, PessoaFisica.class, usuario.getPessoaFisica(), PessoaFisica::getId));
+    }
 }
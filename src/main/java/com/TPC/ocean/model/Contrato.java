@@ -1,7 +1,10 @@
 package com.TPC.ocean.model;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.hateoas.EntityModel;
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.controller.ContratoController;
+import com.TPC.ocean.util.ETags;
 import com.TPC.ocean.util.HateoasHelper;
 
 import jakarta.persistence.*;
@@ -16,7 +19,19 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tb_contratos")
+@Table(
+    name = "tb_contratos",
+    indexes = {
+        @Index(name = "IX_CONTRATOS_ID_EMPRESA", columnList = "ID_Empresa"),
+        @Index(name = "IX_CONTRATOS_DATA_INICIO", columnList = "dataInicio"),
+        @Index(name = "IX_CONTRATOS_DATA_FIM", columnList = "dataFim"),
+        @Index(name = "IX_CONTRATOS_VALOR", columnList = "valor"),
+        @Index(name = "IX_CONTRATOS_STATUS_DATA_FIM", columnList = "status, dataFim"),
+        @Index(name = "IX_CONTRATOS_TIPO_DATA_INICIO", columnList = "tipoContrato, dataInicio")
+    }
+)
+@EntityListeners(CacheVersionListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -26,7 +41,10 @@ public class Contrato {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @Version
+    private Long versao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_Empresa", nullable = false)
     private Empresa empresa;
 
@@ -47,7 +65,12 @@ public class Contrato {
 
     @NotBlank(message = "{contrato.assinaturaPendente.notblank}")
     @Pattern(regexp = "0|1", message = "{contrato.assinaturaPendente.invalid}")
-    private char assinaturaPendente;
+    @Column(length = 1)
+    private String assinaturaPendente;
+
+    public String versoes() {
+        return ETags.versoes(versao, empresa.versoes());
+    }
 
     public EntityModel<Contrato> toEntityModel() {
         return HateoasHelper.createModelWithLinks(this, ContratoController.class, id);
@@ -0,0 +1,29 @@
+package com.TPC.ocean.model;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.TPC.ocean.util.Filtros;
+
+public record ContratoFiltro(
+    String status,
+    String tipoContrato,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicioDe,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicioAte,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFimDe,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFimAte,
+    Double valorMin,
+    Double valorMax)
+{
+    public Specification<Contrato> toSpecification() {
+        return Specification.allOf(
+            Filtros.igual("status", status),
+            Filtros.igual("tipoContrato", tipoContrato),
+            Filtros.entre("dataInicio", dataInicioDe, dataInicioAte),
+            Filtros.entre("dataFim", dataFimDe, dataFimAte),
+            Filtros.entre("valor", valorMin, valorMax)
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.TPC.ocean.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public record ExclusaoEmpresaStatus(String ticket, Long empresaId, Estado estado, Map<String, Long> removidos, String erro) {
+    public enum Estado { PENDENTE, EXECUTANDO, CONCLUIDA, FALHOU }
+
+    public static ExclusaoEmpresaStatus pendente(String ticket, Long empresaId) {
+        return new ExclusaoEmpresaStatus(ticket, empresaId, Estado.PENDENTE, Map.of(), null);
+    }
+
+    public ExclusaoEmpresaStatus executando(Map<String, Long> removidos) {
+        return new ExclusaoEmpresaStatus(ticket, empresaId, Estado.EXECUTANDO, copia(removidos), null);
+    }
+
+    public ExclusaoEmpresaStatus concluida(Map<String, Long> removidos) {
+        return new ExclusaoEmpresaStatus(ticket, empresaId, Estado.CONCLUIDA, copia(removidos), null);
+    }
+
+    public ExclusaoEmpresaStatus falhou(Map<String, Long> removidos, String erro) {
+        return new ExclusaoEmpresaStatus(ticket, empresaId, Estado.FALHOU, copia(removidos), erro);
+    }
+
+    /** Mantém a ordem das etapas na resposta. */
+    private static Map<String, Long> copia(Map<String, Long> removidos) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(removidos));
+    }
+}
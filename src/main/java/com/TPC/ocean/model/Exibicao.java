@@ -1,7 +1,10 @@
 package com.TPC.ocean.model;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.hateoas.EntityModel;
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.controller.ExibicaoController;
+import com.TPC.ocean.util.ETags;
 import com.TPC.ocean.util.HateoasHelper;
 
 import jakarta.persistence.*;
@@ -15,7 +18,16 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tb_exibicoes")
+@Table(
+    name = "tb_exibicoes",
+    indexes = {
+        @Index(name = "IX_EXIBICOES_ID_TRANSACAO", columnList = "ID_Transacao"),
+        @Index(name = "IX_EXIBICOES_DATA_EXIBICAO", columnList = "dataExibicao"),
+        @Index(name = "IX_EXIBICOES_VALOR", columnList = "valor")
+    }
+)
+@EntityListeners(CacheVersionListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,7 +37,10 @@ public class Exibicao {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @Version
+    private Long versao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_Transacao", nullable = false)
     private Transacao transacao;
 
@@ -38,6 +53,10 @@ public class Exibicao {
     @NotBlank(message = "{exibicao.descricao.notblank}")
     private String descricao;
 
+    public String versoes() {
+        return ETags.versoes(versao, transacao.versoes());
+    }
+
     public EntityModel<Exibicao> toEntityModel() {
         return HateoasHelper.createModelWithLinks(this, ExibicaoController.class, id);
     }
@@ -0,0 +1,17 @@
+package com.TPC.ocean.model;
+
+public record IngestaoStatus(String ticket, Estado estado, Long transacaoId, String erro) {
+    public enum Estado { PENDENTE, GRAVADA, FALHOU }
+
+    public static IngestaoStatus pendente(String ticket) {
+        return new IngestaoStatus(ticket, Estado.PENDENTE, null, null);
+    }
+
+    public static IngestaoStatus gravada(IngestaoTransacao ingestao) {
+        return new IngestaoStatus(ingestao.getTicket(), Estado.GRAVADA, ingestao.getTransacaoId(), null);
+    }
+
+    public static IngestaoStatus falhou(String ticket, String erro) {
+        return new IngestaoStatus(ticket, Estado.FALHOU, null, erro);
+    }
+}
@@ -0,0 +1,31 @@
+package com.TPC.ocean.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ticket de uma transação recebida pela fila, gravado na mesma transação do
+ * banco que a transação. Serve de status durável e impede que o replay do
+ * journal grave a mesma transação duas vezes. Depois da retenção da fila
+ * ({@code ocean.ingestao.retencao}) o ticket é excluído.
+ */
+@Entity
+@Table(name = "tb_ingestoes_transacoes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestaoTransacao {
+    @Id
+    @Column(length = 36)
+    private String ticket;
+
+    @Column(name = "ID_Transacao", nullable = false)
+    private Long transacaoId;
+
+    @Column(name = "DT_Gravacao", nullable = false)
+    private Instant gravadoEm;
+}
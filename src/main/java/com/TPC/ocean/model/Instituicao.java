@@ -1,6 +1,8 @@
 package com.TPC.ocean.model;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.hateoas.EntityModel;
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.controller.InstituicaoController;
 import com.TPC.ocean.util.HateoasHelper;
 
@@ -15,7 +17,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tb_instituicoes")
+@Table(
+    name = "tb_instituicoes",
+    indexes = {
+        @Index(name = "IX_INSTITUICOES_NOME", columnList = "nome"),
+        @Index(name = "UK_INSTITUICOES_CNPJ", columnList = "cnpj", unique = true)
+    }
+)
+@EntityListeners(CacheVersionListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,6 +35,9 @@ public class Instituicao {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long versao;
+
     @NotBlank(message = "{instituicao.nome.notblank}")
     private String nome;
 
@@ -45,6 +58,10 @@ public class Instituicao {
     @Size(max = 255, message = "{instituicao.ender.size}")
     private String endereco;
 
+    public String versoes() {
+        return String.valueOf(versao);
+    }
+
     public EntityModel<Instituicao> toEntityModel() {
         return HateoasHelper.createModelWithLinks(this, InstituicaoController.class, id);
     }
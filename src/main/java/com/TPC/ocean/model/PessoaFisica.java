@@ -1,6 +1,8 @@
 package com.TPC.ocean.model;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.hateoas.EntityModel;
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.controller.PessoaFisicaController;
 import com.TPC.ocean.util.HateoasHelper;
 
@@ -15,7 +17,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tb_pessoas_fisicas")
+@Table(
+    name = "tb_pessoas_fisicas",
+    indexes = {
+        @Index(name = "IX_PESSOAS_FISICAS_NOME", columnList = "nome"),
+        @Index(name = "UK_PESSOAS_FISICAS_CPF", columnList = "cpf", unique = true)
+    }
+)
+@EntityListeners(CacheVersionListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,6 +35,9 @@ public class PessoaFisica {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long versao;
+
     @NotBlank(message = "{pessoafisica.nome.notblank}")
     private String nome;
 
@@ -40,6 +53,10 @@ public class PessoaFisica {
     @Size(min = 8, message = "{pessoafisica.senha.size}")
     private String senha;
 
+    public String versoes() {
+        return String.valueOf(versao);
+    }
+
     public EntityModel<PessoaFisica> toEntityModel() {
         return HateoasHelper.createModelWithLinks(this, PessoaFisicaController.class, id);
     }
@@ -0,0 +1,3 @@
+package com.TPC.ocean.model;
+
+public record ResultadoBusca<T>(T item, double pontuacao) {}
@@ -0,0 +1,61 @@
+package com.TPC.ocean.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(
+    name = "tb_resumos_financeiros",
+    indexes = {
+        @Index(name = "UK_RESUMOS_CHAVE", columnList = "chave", unique = true),
+        @Index(name = "IX_RESUMOS_EMPRESA_DIA", columnList = "nivel, ID_Empresa, dia"),
+        @Index(name = "IX_RESUMOS_CONTRATO_DIA", columnList = "nivel, ID_Contrato, dia")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoFinanceiro {
+    public enum Nivel { EMPRESA, CONTRATO, EMPRESA_DIA, CONTRATO_DIA }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resumo_financeiro_seq")
+    @SequenceGenerator(name = "resumo_financeiro_seq", sequenceName = "SQ_RESUMOS_FINANCEIROS", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String chave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 12)
+    private Nivel nivel;
+
+    @Column(name = "ID_Empresa", nullable = false)
+    private Long empresaId;
+
+    @Column(name = "ID_Contrato")
+    private Long contratoId;
+
+    private LocalDate dia;
+
+    @Column(nullable = false)
+    private Long quantidade;
+
+    @Column(nullable = false)
+    private Double soma;
+
+    public static String chave(Nivel nivel, Long empresaId, Long contratoId, LocalDate dia) {
+        return switch (nivel) {
+            case EMPRESA -> "E:" + empresaId;
+            case CONTRATO -> "C:" + contratoId;
+            case EMPRESA_DIA -> "ED:" + empresaId + ":" + dia;
+            case CONTRATO_DIA -> "CD:" + contratoId + ":" + dia;
+        };
+    }
+}
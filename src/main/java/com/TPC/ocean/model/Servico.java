@@ -1,7 +1,10 @@
 package com.TPC.ocean.model;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.hateoas.EntityModel;
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.controller.ServicoController;
+import com.TPC.ocean.util.ETags;
 import com.TPC.ocean.util.HateoasHelper;
 
 import jakarta.persistence.*;
@@ -15,7 +18,16 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tb_servicos")
+@Table(
+    name = "tb_servicos",
+    indexes = {
+        @Index(name = "IX_SERVICOS_ID_EMPRESA", columnList = "ID_Empresa"),
+        @Index(name = "IX_SERVICOS_DATA_SERVICO", columnList = "dataServico"),
+        @Index(name = "IX_SERVICOS_STATUS_DATA_SERVICO", columnList = "status, dataServico")
+    }
+)
+@EntityListeners(CacheVersionListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,7 +37,10 @@ public class Servico {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @Version
+    private Long versao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_Empresa", nullable = false)
     private Empresa empresa;
 
@@ -38,6 +53,10 @@ public class Servico {
     @NotBlank(message = "{servico.status.notblank}")
     private String status;
 
+    public String versoes() {
+        return ETags.versoes(versao, empresa.versoes());
+    }
+
     public EntityModel<Servico> toEntityModel() {
         return HateoasHelper.createModelWithLinks(this, ServicoController.class, id);
     }
@@ -0,0 +1,21 @@
+package com.TPC.ocean.model;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.TPC.ocean.util.Filtros;
+
+public record ServicoFiltro(
+    String status,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataServicoDe,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataServicoAte)
+{
+    public Specification<Servico> toSpecification() {
+        return Specification.allOf(
+            Filtros.igual("status", status),
+            Filtros.entre("dataServico", dataServicoDe, dataServicoAte)
+        );
+    }
+}
@@ -1,9 +1,12 @@
 package com.TPC.ocean.model;
 
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDate;
 
 import org.springframework.hateoas.EntityModel;
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.controller.TermosCondicoesController;
+import com.TPC.ocean.util.ETags;
 import com.TPC.ocean.util.HateoasHelper;
 
 import jakarta.persistence.*;
@@ -16,7 +19,15 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tb_termos_condicoes")
+@Table(
+    name = "tb_termos_condicoes",
+    indexes = {
+        @Index(name = "IX_TERMOS_CONDICOES_ID_USUARIO", columnList = "ID_Usuario"),
+        @Index(name = "IX_TERMOS_CONDICOES_DATA_ACEITE", columnList = "dataAceite")
+    }
+)
+@EntityListeners(CacheVersionListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,18 +36,26 @@ public class TermosCondicoes {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @Version
+    private Long versao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_Usuario", nullable = false)
     @NotNull(message = "{termosCondicoes.idUsuario.notnull}")
     private Usuario usuario;
 
     @NotBlank(message = "{termosCondicoes.aceitou.notblank}")
-    @Pattern(regexp = "0|1", message = "{contrato.aceitou.invalid}")
-    private char aceitou;
+    @Pattern(regexp = "0|1", message = "{termosCondicoes.aceitou.pattern}")
+    @Column(length = 1)
+    private String aceitou;
 
     @NotNull(message = "{termosCondicoes.dataAceite.notnull}")
     private LocalDate dataAceite;
 
+    public String versoes() {
+        return ETags.versoes(versao, usuario.versoes());
+    }
+
     public EntityModel<TermosCondicoes> toEntityModel() {
         return HateoasHelper.createModelWithLinks(this, TermosCondicoesController.class, id);
     }
@@ -0,0 +1,3 @@
+package com.TPC.ocean.model;
+
+public record TotalMensalTransacoes(Integer ano, Integer mes, Long quantidade, Double soma, Double media) {}
@@ -0,0 +1,3 @@
+package com.TPC.ocean.model;
+
+public record TotalTransacoes(Long id, Long quantidade, Double soma, Double media) {}
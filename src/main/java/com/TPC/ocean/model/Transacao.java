@@ -1,7 +1,10 @@
 package com.TPC.ocean.model;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.hateoas.EntityModel;
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.controller.TransacaoController;
+import com.TPC.ocean.util.ETags;
 import com.TPC.ocean.util.HateoasHelper;
 
 import jakarta.persistence.*;
@@ -15,18 +18,32 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "tb_transacoes")
+@Table(
+    name = "tb_transacoes",
+    indexes = {
+        @Index(name = "IX_TRANSACOES_ID_CONTRATO", columnList = "ID_Contrato"),
+        @Index(name = "IX_TRANSACOES_DATA_VALOR", columnList = "data, valor"),
+        @Index(name = "IX_TRANSACOES_VALOR", columnList = "valor")
+    }
+)
+@EntityListeners(CacheVersionListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transacao {
     @Id 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transacao_seq")
+    @SequenceGenerator(name = "transacao_seq", sequenceName = "SQ_TRANSACOES", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @Version
+    private Long versao;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_Contrato", nullable = false)
+    @NotNull(message = "{transacao.contrato.notnull}")
     private Contrato contrato;
 
     @NotNull(message = "{transacao.data.notnull}")
@@ -38,6 +55,10 @@ public class Transacao {
     @NotBlank(message = "{transacao.descricao.notblank}")
     private String descricao;
 
+    public String versoes() {
+        return ETags.versoes(versao, contrato.versoes());
+    }
+
     public EntityModel<Transacao> toEntityModel() {
         return HateoasHelper.createModelWithLinks(this, TransacaoController.class, id);
     }
@@ -0,0 +1,26 @@
+package com.TPC.ocean.model;
+
+import java.time.LocalDate;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.TPC.ocean.util.Filtros;
+
+public record TransacaoFiltro(
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataDe,
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataAte,
+    Double valorMin,
+    Double valorMax)
+{
+    public boolean vazio() {
+        return dataDe == null && dataAte == null && valorMin == null && valorMax == null;
+    }
+
+    public Specification<Transacao> toSpecification() {
+        return Specification.allOf(
+            Filtros.entre("data", dataDe, dataAte),
+            Filtros.entre("valor", valorMin, valorMax)
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.TPC.ocean.model;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record TransacaoLote(
+    @NotEmpty(message = "{transacao.lote.notempty}")
+    @Size(max = 10000, message = "{transacao.lote.size}")
+    List<@Valid Transacao> transacoes
+) {}
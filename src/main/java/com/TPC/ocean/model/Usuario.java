@@ -1,7 +1,10 @@
 package com.TPC.ocean.model;
 
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.hateoas.EntityModel;
+import com.TPC.ocean.config.CacheVersionListener;
 import com.TPC.ocean.controller.UsuarioController;
+import com.TPC.ocean.util.ETags;
 import com.TPC.ocean.util.HateoasHelper;
 
 import jakarta.persistence.*;
@@ -15,7 +18,18 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "tb_usuarios")
+@Table(
+    name = "tb_usuarios",
+    indexes = {
+        @Index(name = "IX_USUARIOS_ID_EMPRESA", columnList = "ID_Empresa"),
+        @Index(name = "IX_USUARIOS_ID_INSTITUICAO", columnList = "ID_Instituicao"),
+        @Index(name = "IX_USUARIOS_ID_PESSOA_FISICA", columnList = "ID_Pessoa_Fisica"),
+        @Index(name = "IX_USUARIOS_NOME", columnList = "nome"),
+        @Index(name = "UK_USUARIOS_EMAIL", columnList = "email", unique = true)
+    }
+)
+@EntityListeners(CacheVersionListener.class)
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -25,6 +39,9 @@ public class Usuario {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long versao;
+
     @NotBlank(message = "{usuario.nome.notblank}")
     private String nome;
 
@@ -40,18 +57,27 @@ public class Usuario {
     @Pattern(regexp = "pf|empresa|instituicao", message = "{usuario.tipo.invalid}")
     private String tipo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_Empresa", nullable = true)
     private Empresa empresa;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_Instituicao", nullable = true)
     private Instituicao instituicao;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_Pessoa_Fisica", nullable = true)
     private PessoaFisica pessoaFisica;
 
+    public String versoes() {
+        return ETags.versoes(
+            versao,
+            empresa == null ? null : empresa.versoes(),
+            instituicao == null ? null : instituicao.versoes(),
+            pessoaFisica == null ? null : pessoaFisica.versoes()
+        );
+    }
+
     public EntityModel<Usuario> toEntityModel() {
         return HateoasHelper.createModelWithLinks(this, UsuarioController.class, id);
     }
@@ -2,12 +2,49 @@ package com.TPC.ocean.repository;
 
 import com.TPC.ocean.model.Contrato;
 
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ContratoRepository extends JpaRepository<Contrato, Long> {
+@CacheConfig(cacheNames = "contratos-por-id")
+public interface ContratoRepository extends JpaRepository<Contrato, Long>, JpaSpecificationExecutor<Contrato> {
     Page<Contrato> findById(String id, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa"})
+    Page<Contrato> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa"})
+    Page<Contrato> findAll(Specification<Contrato> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa"})
+    @Cacheable(key = "#p0", unless = "#result == null")
+    Optional<Contrato> findById(Long id);
+
+    @Override
+    @CacheEvict(key = "#result.id")
+    <S extends Contrato> S save(S entity);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    /** DELETE único pelo id; devolve a quantidade de linhas removidas. */
+    @Modifying
+    @Query("delete from Contrato c where c.id = :id")
+    int excluir(Long id);
 }
@@ -2,12 +2,37 @@ package com.TPC.ocean.repository;
 
 import com.TPC.ocean.model.Empresa;
 
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
+@CacheConfig(cacheNames = "empresas-por-id")
 public interface EmpresaRepository extends JpaRepository<Empresa, Long> {
     Page<Empresa> findById(String id, Pageable pageable);
+
+    @Override
+    @Cacheable(key = "#p0", unless = "#result == null")
+    Optional<Empresa> findById(Long id);
+
+    @Override
+    @CacheEvict(key = "#result.id")
+    <S extends Empresa> S save(S entity);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    /** DELETE único pelo id; devolve a quantidade de linhas removidas. */
+    @Modifying
+    @Query("delete from Empresa e where e.id = :id")
+    int excluir(Long id);
 }
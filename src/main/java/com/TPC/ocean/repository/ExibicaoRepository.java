@@ -2,12 +2,71 @@ package com.TPC.ocean.repository;
 
 import com.TPC.ocean.model.Exibicao;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
+@CacheConfig(cacheNames = "exibicoes-por-id")
 public interface ExibicaoRepository extends JpaRepository<Exibicao, Long> {
     Page<Exibicao> findById(String id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"transacao", "transacao.contrato", "transacao.contrato.empresa"})
+    Window<Exibicao> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("select e from Exibicao e order by e.id")
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Exibicao> streamAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"transacao", "transacao.contrato", "transacao.contrato.empresa"})
+    Page<Exibicao> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"transacao", "transacao.contrato", "transacao.contrato.empresa"})
+    List<Exibicao> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = {"transacao", "transacao.contrato", "transacao.contrato.empresa"})
+    Slice<Exibicao> findAllBy(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"transacao", "transacao.contrato", "transacao.contrato.empresa"})
+    @Cacheable(key = "#p0", unless = "#result == null")
+    Optional<Exibicao> findById(Long id);
+
+    @Override
+    @CacheEvict(key = "#result.id")
+    <S extends Exibicao> S save(S entity);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    /** DELETE único pelo id; devolve a quantidade de linhas removidas. */
+    @Modifying
+    @Query("delete from Exibicao e where e.id = :id")
+    int excluir(Long id);
 }
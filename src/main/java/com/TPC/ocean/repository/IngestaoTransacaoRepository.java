@@ -0,0 +1,23 @@
+package com.TPC.ocean.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.TPC.ocean.model.IngestaoTransacao;
+
+@Repository
+public interface IngestaoTransacaoRepository extends JpaRepository<IngestaoTransacao, String> {
+    /** Tickets gravados antes do limite. */
+    @Query("select i.ticket from IngestaoTransacao i where i.gravadoEm < :limite")
+    List<String> ticketsAnteriores(Instant limite, Limit limit);
+
+    @Modifying
+    @Query("delete from IngestaoTransacao i where i.ticket in :tickets")
+    int excluir(List<String> tickets);
+}
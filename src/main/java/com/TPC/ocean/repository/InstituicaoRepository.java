@@ -2,12 +2,37 @@ package com.TPC.ocean.repository;
 
 import com.TPC.ocean.model.Instituicao;
 
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
+@CacheConfig(cacheNames = "instituicoes-por-id")
 public interface InstituicaoRepository extends JpaRepository<Instituicao, Long> {
     Page<Instituicao> findById(String id, Pageable pageable);
+
+    @Override
+    @Cacheable(key = "#p0", unless = "#result == null")
+    Optional<Instituicao> findById(Long id);
+
+    @Override
+    @CacheEvict(key = "#result.id")
+    <S extends Instituicao> S save(S entity);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    /** DELETE único pelo id; devolve a quantidade de linhas removidas. */
+    @Modifying
+    @Query("delete from Instituicao i where i.id = :id")
+    int excluir(Long id);
 }
@@ -0,0 +1,79 @@
+package com.TPC.ocean.repository;
+
+import com.TPC.ocean.model.ResumoFinanceiro;
+import com.TPC.ocean.model.ResumoFinanceiro.Nivel;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ResumoFinanceiroRepository extends JpaRepository<ResumoFinanceiro, Long> {
+    Optional<ResumoFinanceiro> findByChave(String chave);
+
+    List<ResumoFinanceiro> findByNivelAndEmpresaIdAndDiaBetweenOrderByDia(Nivel nivel, Long empresaId, LocalDate de, LocalDate ate);
+
+    List<ResumoFinanceiro> findByNivelAndContratoIdAndDiaBetweenOrderByDia(Nivel nivel, Long contratoId, LocalDate de, LocalDate ate);
+
+    @Modifying
+    @Query(
+        value = "update tb_resumos_financeiros set quantidade = quantidade + :quantidade, soma = soma + :soma where chave = :chave",
+        nativeQuery = true
+    )
+    int acumular(String chave, long quantidade, double soma);
+
+    /** Trava os contratos: a empresa lida aqui não muda até o fim da transação. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.id, c.empresa.id from Contrato c where c.id in :contratoIds order by c.id")
+    List<Object[]> empresasDosContratos(Collection<Long> contratoIds);
+
+    @Query("""
+        select t.contrato.id, t.data, count(t), sum(t.valor)
+        from Transacao t join t.contrato c
+        where c.empresa.id = :empresaId
+        group by t.contrato.id, t.data
+        """)
+    Stream<Object[]> totaisPorContratoEDia(Long empresaId);
+
+    List<ResumoFinanceiro> findByNivelAndContratoId(Nivel nivel, Long contratoId);
+
+    @Query("select e.id from Empresa e order by e.id")
+    List<Long> idsDasEmpresas();
+
+    @Query("select count(t) > 0 from Transacao t where t.contrato.id = :contratoId")
+    boolean possuiTransacoes(Long contratoId);
+
+    @Modifying
+    @Query("update ResumoFinanceiro r set r.empresaId = :empresaId where r.contratoId = :contratoId")
+    int moverContrato(Long contratoId, Long empresaId);
+
+    @Modifying
+    @Query("update ResumoFinanceiro r set r.quantidade = :quantidade, r.soma = :soma where r.chave = :chave")
+    int substituir(String chave, long quantidade, double soma);
+
+    @Modifying
+    @Query("""
+        delete from ResumoFinanceiro r
+        where r.nivel <> :preservado
+        and (r.empresaId = :empresaId or r.contratoId in (select c.id from Contrato c where c.empresa.id = :empresaId))
+        """)
+    int excluirDaEmpresa(Long empresaId, Nivel preservado);
+
+    @Modifying
+    @Query("delete from ResumoFinanceiro r where r.chave = :chave")
+    int excluirChave(String chave);
+
+    @Modifying
+    @Query("delete from ResumoFinanceiro r where not exists (select 1 from Empresa e where e.id = r.empresaId)")
+    int excluirOrfaos();
+}
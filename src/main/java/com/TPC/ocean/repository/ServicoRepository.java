@@ -2,12 +2,54 @@ package com.TPC.ocean.repository;
 
 import com.TPC.ocean.model.Servico;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ServicoRepository extends JpaRepository<Servico, Long> {
+@CacheConfig(cacheNames = "servicos-por-id")
+public interface ServicoRepository extends JpaRepository<Servico, Long>, JpaSpecificationExecutor<Servico> {
     Page<Servico> findById(String id, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa"})
+    Page<Servico> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa"})
+    List<Servico> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa"})
+    Page<Servico> findAll(Specification<Servico> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa"})
+    @Cacheable(key = "#p0", unless = "#result == null")
+    Optional<Servico> findById(Long id);
+
+    @Override
+    @CacheEvict(key = "#result.id")
+    <S extends Servico> S save(S entity);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    /** DELETE único pelo id; devolve a quantidade de linhas removidas. */
+    @Modifying
+    @Query("delete from Servico s where s.id = :id")
+    int excluir(Long id);
 }
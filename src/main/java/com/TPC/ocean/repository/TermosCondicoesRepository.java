@@ -2,12 +2,43 @@ package com.TPC.ocean.repository;
 
 import com.TPC.ocean.model.TermosCondicoes;
 
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
+@CacheConfig(cacheNames = "termos-condicoes-por-id")
 public interface TermosCondicoesRepository extends JpaRepository<TermosCondicoes, Long> {
     Page<TermosCondicoes> findById(String id, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "usuario.empresa", "usuario.instituicao", "usuario.pessoaFisica"})
+    Page<TermosCondicoes> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "usuario.empresa", "usuario.instituicao", "usuario.pessoaFisica"})
+    @Cacheable(key = "#p0", unless = "#result == null")
+    Optional<TermosCondicoes> findById(Long id);
+
+    @Override
+    @CacheEvict(key = "#result.id")
+    <S extends TermosCondicoes> S save(S entity);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    /** DELETE único pelo id; devolve a quantidade de linhas removidas. */
+    @Modifying
+    @Query("delete from TermosCondicoes t where t.id = :id")
+    int excluir(Long id);
 }
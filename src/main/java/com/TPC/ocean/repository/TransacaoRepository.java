@@ -1,13 +1,134 @@
 package com.TPC.ocean.repository;
 
+import com.TPC.ocean.model.TotalMensalTransacoes;
+import com.TPC.ocean.model.TotalTransacoes;
 import com.TPC.ocean.model.Transacao;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface TransacaoRepository extends JpaRepository<Transacao, Long> {
+@CacheConfig(cacheNames = "transacoes-por-id")
+public interface TransacaoRepository extends JpaRepository<Transacao, Long>, JpaSpecificationExecutor<Transacao> {
     Page<Transacao> findById(String id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"contrato", "contrato.empresa"})
+    Window<Transacao> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("select t from Transacao t order by t.id")
+    @QueryHints({
+        @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Transacao> streamAll();
+
+    @Query("""
+        select new com.TPC.ocean.model.TotalTransacoes(t.contrato.id, count(t), sum(t.valor), avg(t.valor))
+        from Transacao t
+        where (:de is null or t.data >= :de) and (:ate is null or t.data <= :ate)
+        group by t.contrato.id
+        order by t.contrato.id
+        """)
+    List<TotalTransacoes> totaisPorContrato(LocalDate de, LocalDate ate);
+
+    @Query("""
+        select new com.TPC.ocean.model.TotalTransacoes(c.empresa.id, count(t), sum(t.valor), avg(t.valor))
+        from Transacao t join t.contrato c
+        where (:de is null or t.data >= :de) and (:ate is null or t.data <= :ate)
+        group by c.empresa.id
+        order by c.empresa.id
+        """)
+    List<TotalTransacoes> totaisPorEmpresa(LocalDate de, LocalDate ate);
+
+    @Query("""
+        select new com.TPC.ocean.model.TotalMensalTransacoes(year(t.data), month(t.data), count(t), sum(t.valor), avg(t.valor))
+        from Transacao t
+        where (:de is null or t.data >= :de) and (:ate is null or t.data <= :ate)
+        group by year(t.data), month(t.data)
+        order by year(t.data), month(t.data)
+        """)
+    List<TotalMensalTransacoes> totaisPorMes(LocalDate de, LocalDate ate);
+
+    @Override
+    @EntityGraph(attributePaths = {"contrato", "contrato.empresa"})
+    Page<Transacao> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"contrato", "contrato.empresa"})
+    List<Transacao> findAllById(Iterable<Long> ids);
+
+    @Override
+    @EntityGraph(attributePaths = {"contrato", "contrato.empresa"})
+    Page<Transacao> findAll(Specification<Transacao> spec, Pageable pageable);
+
+    default Window<Transacao> findBy(Specification<Transacao> spec, ScrollPosition position, Sort sort, Limit limit) {
+        return findBy(spec.and(comContratoEEmpresa()), query -> query
+            .sortBy(sort)
+            .limit(limit.max())
+            .scroll(position));
+    }
+
+    default Slice<Transacao> findAllBy(Specification<Transacao> spec, Pageable pageable) {
+        ScrollPosition inicio = pageable.getOffset() == 0
+            ? ScrollPosition.offset()
+            : ScrollPosition.offset(pageable.getOffset() - 1);
+        Window<Transacao> window = findBy(spec, inicio, pageable.getSort(), Limit.of(pageable.getPageSize()));
+        return new SliceImpl<>(window.getContent(), pageable, window.hasNext());
+    }
+
+    /** Mesmo plano de busca do @EntityGraph, para as consultas fluentes por Specification. */
+    private static Specification<Transacao> comContratoEEmpresa() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("contrato").fetch("empresa");
+            }
+            return null;
+        };
+    }
+
+    @EntityGraph(attributePaths = {"contrato", "contrato.empresa"})
+    Slice<Transacao> findAllBy(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"contrato", "contrato.empresa"})
+    @Cacheable(key = "#p0", unless = "#result == null")
+    Optional<Transacao> findById(Long id);
+
+    @Override
+    @CacheEvict(key = "#result.id")
+    <S extends Transacao> S save(S entity);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    /** DELETE único pelo id; devolve a quantidade de linhas removidas. */
+    @Modifying
+    @Query("delete from Transacao t where t.id = :id")
+    int excluir(Long id);
 }
@@ -2,12 +2,43 @@ package com.TPC.ocean.repository;
 
 import com.TPC.ocean.model.Usuario;
 
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
+@CacheConfig(cacheNames = "usuarios-por-id")
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Page<Usuario> findById(String id, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa", "instituicao", "pessoaFisica"})
+    Page<Usuario> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"empresa", "instituicao", "pessoaFisica"})
+    @Cacheable(key = "#p0", unless = "#result == null")
+    Optional<Usuario> findById(Long id);
+
+    @Override
+    @CacheEvict(key = "#result.id")
+    <S extends Usuario> S save(S entity);
+
+    @Override
+    @CacheEvict(key = "#p0")
+    void deleteById(Long id);
+
+    /** DELETE único pelo id; devolve a quantidade de linhas removidas. */
+    @Modifying
+    @Query("delete from Usuario u where u.id = :id")
+    int excluir(Long id);
 }
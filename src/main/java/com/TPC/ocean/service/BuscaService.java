@@ -0,0 +1,100 @@
+package com.TPC.ocean.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.TPC.ocean.util.IndiceInvertido;
+import com.TPC.ocean.util.IndiceInvertido.Resultado;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Busca textual na descrição de serviços, transações e exibições. Cada tipo
+ * tem um {@link IndiceInvertido} em memória, montado a partir do banco na
+ * subida da aplicação e atualizado pelos controllers a cada escrita, depois
+ * do commit. O índice é local ao processo.
+ */
+@Service
+public class BuscaService {
+    public enum Tipo {
+        SERVICO("Servico"),
+        TRANSACAO("Transacao"),
+        EXIBICAO("Exibicao");
+
+        final String entidade;
+
+        Tipo(String entidade) {
+            this.entidade = entidade;
+        }
+    }
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final Map<Tipo, IndiceInvertido> indices = new EnumMap<>(Tipo.class);
+
+    public BuscaService() {
+        for (Tipo tipo : Tipo.values()) {
+            indices.put(tipo, new IndiceInvertido());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (Tipo tipo : Tipo.values()) {
+            IndiceInvertido indice = indices.get(tipo);
+            indice.limpar();
+            transaction.executeWithoutResult(status -> {
+                String jpql = "select e.id, e.descricao from " + tipo.entidade + " e";
+                try (Stream<Object[]> linhas = entityManager.createQuery(jpql, Object[].class).getResultStream()) {
+                    linhas.forEach(linha -> indice.indexar((Long) linha[0], (String) linha[1]));
+                }
+            });
+        }
+    }
+
+    public List<Resultado> buscar(Tipo tipo, String consulta, int limite) {
+        return indices.get(tipo).buscar(consulta, limite);
+    }
+
+    public void indexar(Tipo tipo, Long id, String descricao) {
+        aposCommit(() -> indices.get(tipo).indexar(id, descricao));
+    }
+
+    public void indexar(Tipo tipo, Map<Long, String> descricoes) {
+        aposCommit(() -> descricoes.forEach(indices.get(tipo)::indexar));
+    }
+
+    public void remover(Tipo tipo, Long id) {
+        aposCommit(() -> indices.get(tipo).remover(id));
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
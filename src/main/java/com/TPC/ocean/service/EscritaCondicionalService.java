@@ -0,0 +1,107 @@
+package com.TPC.ocean.service;
+
+import java.util.Objects;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.TPC.ocean.config.CacheVersionListener;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+/**
+ * Escritas condicionadas ao If-Match. A versão informada vai para o WHERE do
+ * UPDATE ou do DELETE, sem leitura prévia; quando nenhuma linha é afetada, o
+ * registro não existe (404) ou mudou desde a ETag do cliente (412). Só a
+ * versão da própria entidade é comparada: as versões das associações que
+ * compõem a ETag servem ao cache do cliente, não a esta escrita.
+ */
+@Service
+public class EscritaCondicionalService {
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    /**
+     * UPDATE de todas as colunas com WHERE id e versão. A entidade recebida
+     * volta com o id e a nova versão preenchidos.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> T atualizar(T entidade, Long id, long versao, String naoEncontrado) {
+        @SuppressWarnings("unchecked")
+        Class<T> tipo = (Class<T>) Hibernate.getClass(entidade);
+        EntityType<T> modelo = entityManager.getMetamodel().entity(tipo);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = cb.createCriteriaUpdate(tipo);
+        Root<T> root = update.from(tipo);
+        BeanWrapper valores = PropertyAccessorFactory.forBeanPropertyAccess(entidade);
+
+        for (SingularAttribute<? super T, ?> atributo : modelo.getSingularAttributes()) {
+            if (atributo.isId() || atributo.isVersion()) {
+                continue;
+            }
+            update.set(atributo.getName(), valores.getPropertyValue(atributo.getName()));
+        }
+        Path<Long> coluna = root.get(modelo.getVersion(Long.class));
+        update.set(coluna, cb.sum(coluna, 1L));
+        update.where(cb.equal(root.get(modelo.getId(Long.class)), id), cb.equal(coluna, versao));
+
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            throw falha(tipo, id, naoEncontrado);
+        }
+        cacheVersionListener.onWrite(tipo, id, versao + 1);
+        valores.setPropertyValue(modelo.getId(Long.class).getName(), id);
+        valores.setPropertyValue(modelo.getVersion(Long.class).getName(), versao + 1);
+        return entidade;
+    }
+
+    /** DELETE com WHERE id e versão. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void excluir(Class<T> tipo, Long id, long versao, String naoEncontrado) {
+        EntityType<T> modelo = entityManager.getMetamodel().entity(tipo);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<T> delete = cb.createCriteriaDelete(tipo);
+        Root<T> root = delete.from(tipo);
+        delete.where(cb.equal(root.get(modelo.getId(Long.class)), id), cb.equal(root.get(modelo.getVersion(Long.class)), versao));
+
+        if (entityManager.createQuery(delete).executeUpdate() == 0) {
+            throw falha(tipo, id, naoEncontrado);
+        }
+        cacheVersionListener.onWrite(tipo, id);
+    }
+
+    /** Para os caminhos que já leem o registro: 412 se a versão lida difere da informada. */
+    public void exigirVersao(Long atual, Long informada) {
+        if (informada != null && !Objects.equals(atual, informada)) {
+            throw precondicaoFalhou();
+        }
+    }
+
+    private ResponseStatusException falha(Class<?> tipo, Long id, String naoEncontrado) {
+        long existentes = entityManager
+            .createQuery("select count(e) from " + entityManager.getMetamodel().entity(tipo).getName() + " e where e.id = :id", Long.class)
+            .setParameter("id", id)
+            .getSingleResult();
+        return existentes == 0 ? new ResponseStatusException(HttpStatus.NOT_FOUND, naoEncontrado) : precondicaoFalhou();
+    }
+
+    private static ResponseStatusException precondicaoFalhou() {
+        return new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Registro alterado desde a ETag informada");
+    }
+}
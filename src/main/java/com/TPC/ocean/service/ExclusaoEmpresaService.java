@@ -0,0 +1,194 @@
+package com.TPC.ocean.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.TPC.ocean.config.CacheVersionListener;
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.ExclusaoEmpresaStatus;
+import com.TPC.ocean.model.Exibicao;
+import com.TPC.ocean.model.ResumoFinanceiro;
+import com.TPC.ocean.model.Servico;
+import com.TPC.ocean.model.TermosCondicoes;
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.model.Usuario;
+import com.TPC.ocean.service.BuscaService.Tipo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Exclusão de uma empresa com todo o grafo que depende dela, em segundo
+ * plano. Cada etapa apaga os dependentes em lotes de até
+ * {@code ocean.exclusao.lote} ids, um lote por transação, na ordem das
+ * chaves estrangeiras; assim nenhum lock fica preso por mais de um lote e as
+ * demais escritas seguem entre eles. Se um dependente novo aparecer no meio
+ * do caminho, a empresa não é apagada e as etapas são repetidas.
+ *
+ * O status fica em memória por uma hora após a última atualização.
+ */
+@Service
+public class ExclusaoEmpresaService {
+    private static final Logger log = LoggerFactory.getLogger(ExclusaoEmpresaService.class);
+    private static final int TENTATIVAS = 3;
+
+    /** Dependentes, do mais distante ao mais próximo da empresa. */
+    private record Etapa(String nome, Class<?> entidade, String caminho, Tipo tipo, String dependentes) {
+        String selecao() {
+            return "select x.id from " + entidade.getSimpleName() + " x where x." + caminho + " = :empresa order by x.id";
+        }
+
+        String exclusao() {
+            return "delete from " + entidade.getSimpleName() + " x where x.id in :ids";
+        }
+    }
+
+    private static final List<Etapa> ETAPAS = List.of(
+        new Etapa("exibicoes", Exibicao.class, "transacao.contrato.empresa.id", Tipo.EXIBICAO, null),
+        new Etapa("transacoes", Transacao.class, "contrato.empresa.id", Tipo.TRANSACAO,
+            "delete from IngestaoTransacao i where i.transacaoId in :ids"),
+        new Etapa("contratos", Contrato.class, "empresa.id", null, null),
+        new Etapa("servicos", Servico.class, "empresa.id", Tipo.SERVICO, null),
+        new Etapa("termosCondicoes", TermosCondicoes.class, "usuario.empresa.id", null, null),
+        new Etapa("usuarios", Usuario.class, "empresa.id", null, null),
+        new Etapa("resumosFinanceiros", ResumoFinanceiro.class, "empresaId", null, null)
+    );
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    CacheVersionListener cacheVersionListener;
+
+    @Autowired
+    BuscaService buscaService;
+
+    @Value("${ocean.exclusao.lote:500}")
+    int lote;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(tarefa -> new Thread(tarefa, "exclusao-empresas"));
+    private final Map<Long, String> emAndamento = new ConcurrentHashMap<>();
+    private final Cache<String, ExclusaoEmpresaStatus> status = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterWrite(Duration.ofHours(1))
+        .build();
+
+    @PreDestroy
+    void fechar() {
+        executor.shutdownNow();
+    }
+
+    /** Agenda a exclusão; se já houver uma em andamento para a empresa, devolve o status dela. */
+    public ExclusaoEmpresaStatus agendar(Long empresaId) {
+        String ticket = emAndamento.computeIfAbsent(empresaId, id -> {
+            ExclusaoEmpresaStatus pendente = ExclusaoEmpresaStatus.pendente(UUID.randomUUID().toString(), id);
+            status.put(pendente.ticket(), pendente);
+            executor.execute(() -> executar(pendente));
+            return pendente.ticket();
+        });
+        return status.getIfPresent(ticket);
+    }
+
+    public Optional<ExclusaoEmpresaStatus> status(String ticket) {
+        return Optional.ofNullable(status.getIfPresent(ticket));
+    }
+
+    private void executar(ExclusaoEmpresaStatus pendente) {
+        Long empresaId = pendente.empresaId();
+        Map<String, Long> removidos = new LinkedHashMap<>();
+        ETAPAS.forEach(etapa -> removidos.put(etapa.nome(), 0L));
+        try {
+            for (int tentativa = 1; ; tentativa++) {
+                try {
+                    for (Etapa etapa : ETAPAS) {
+                        excluirEtapa(etapa, pendente, removidos);
+                    }
+                    removidos.put("empresas", (long) excluirEmpresa(empresaId));
+                    status.put(pendente.ticket(), pendente.concluida(removidos));
+                    return;
+                } catch (RuntimeException e) {
+                    // um dependente foi gravado durante a exclusão: repete as etapas
+                    if (!violacaoDeIntegridade(e) || tentativa == TENTATIVAS) {
+                        throw e;
+                    }
+                    log.info("Empresa {} recebeu novos dependentes durante a exclusão; tentativa {}", empresaId, tentativa + 1);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha na exclusão da empresa {}", empresaId, e);
+            status.put(pendente.ticket(), pendente.falhou(removidos, "Exclusão interrompida; registros já removidos não são restaurados"));
+        } finally {
+            emAndamento.remove(empresaId);
+        }
+    }
+
+    private void excluirEtapa(Etapa etapa, ExclusaoEmpresaStatus pendente, Map<String, Long> removidos) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        while (true) {
+            Integer excluidos = transaction.execute(tx -> {
+                List<Long> ids = entityManager.createQuery(etapa.selecao(), Long.class)
+                    .setParameter("empresa", pendente.empresaId())
+                    .setMaxResults(lote)
+                    .getResultList();
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                if (etapa.dependentes() != null) {
+                    entityManager.createQuery(etapa.dependentes()).setParameter("ids", ids).executeUpdate();
+                }
+                int quantidade = entityManager.createQuery(etapa.exclusao()).setParameter("ids", ids).executeUpdate();
+                for (Long id : ids) {
+                    if (etapa.tipo() != null) {
+                        buscaService.remover(etapa.tipo(), id);
+                    }
+                    cacheVersionListener.onWrite(etapa.entidade(), id);
+                }
+                return quantidade;
+            });
+            if (excluidos == 0) {
+                return;
+            }
+            removidos.merge(etapa.nome(), (long) excluidos, Long::sum);
+            status.put(pendente.ticket(), pendente.executando(removidos));
+        }
+    }
+
+    private int excluirEmpresa(Long empresaId) {
+        return new TransactionTemplate(transactionManager).execute(tx -> {
+            int quantidade = entityManager.createQuery("delete from Empresa e where e.id = :empresa")
+                .setParameter("empresa", empresaId)
+                .executeUpdate();
+            cacheVersionListener.onWrite(Empresa.class, empresaId);
+            return quantidade;
+        });
+    }
+
+    /** Os DELETEs em JPQL não passam pela tradução de exceções dos repositórios. */
+    private static boolean violacaoDeIntegridade(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException
+            || EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(e) instanceof DataIntegrityViolationException;
+    }
+}
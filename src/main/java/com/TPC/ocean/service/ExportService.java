@@ -0,0 +1,176 @@
+package com.TPC.ocean.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Exporta uma consulta {@link Stream} direto para a resposta HTTP. Cada linha
+ * é escrita e a entidade é desanexada do contexto de persistência em seguida,
+ * então a memória usada não depende da quantidade de registros.
+ */
+@Service
+public class ExportService {
+    public enum Formato {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        final MediaType mediaType;
+        final String extensao;
+
+        Formato(MediaType mediaType, String extensao) {
+            this.mediaType = mediaType;
+            this.extensao = extensao;
+        }
+
+        static Formato of(String formato) {
+            try {
+                return valueOf(formato.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato inválido. Use 'ndjson' ou 'csv'");
+            }
+        }
+    }
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<StreamingResponseBody> exportar(
+        String nome, String formato, Supplier<Stream<T>> consulta, List<String> colunas, Function<T, Object[]> linha)
+    {
+        Formato tipo = Formato.of(formato);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            transaction.executeWithoutResult(status -> {
+                try (Stream<T> registros = consulta.get()) {
+                    RowWriter rows = tipo == Formato.CSV ? new CsvWriter(writer, colunas) : new NdjsonWriter(writer, colunas);
+                    registros.forEach(registro -> {
+                        rows.write(linha.apply(registro));
+                        entityManager.detach(registro);
+                    });
+                    rows.finish();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+
+        return ResponseEntity.ok()
+            .contentType(tipo.mediaType)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(nome + "." + tipo.extensao).build().toString())
+            .body(body);
+    }
+
+    private interface RowWriter {
+        void write(Object[] valores);
+
+        void finish() throws IOException;
+    }
+
+    private class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private final List<String> colunas;
+
+        NdjsonWriter(Writer writer, List<String> colunas) throws IOException {
+            this.generator = objectMapper.createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+            this.colunas = colunas;
+        }
+
+        @Override
+        public void write(Object[] valores) {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < valores.length; i++) {
+                    generator.writeFieldName(colunas.get(i));
+                    generator.writeObject(valores[i]);
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(Writer writer, List<String> colunas) throws IOException {
+            this.writer = writer;
+            write(colunas.toArray());
+        }
+
+        @Override
+        public void write(Object[] valores) {
+            try {
+                for (int i = 0; i < valores.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(escape(valores[i]));
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private static String escape(Object valor) {
+            if (valor == null) {
+                return "";
+            }
+            String texto = valor.toString();
+            if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+                return texto;
+            }
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+    }
+}
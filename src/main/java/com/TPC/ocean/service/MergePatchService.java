@@ -0,0 +1,97 @@
+package com.TPC.ocean.service;
+
+import java.beans.PropertyDescriptor;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+
+/**
+ * Aplica um JSON Merge Patch (RFC 7396) sobre uma entidade gerenciada. Só os
+ * campos presentes no documento são convertidos, validados e atribuídos;
+ * {@code null} limpa o campo. Associações recebem {@code {"id": ...}} e são
+ * trocadas por referências, sem carregar o registro pai. Como as entidades
+ * usam {@code @DynamicUpdate}, o UPDATE gerado no flush traz apenas as
+ * colunas que mudaram.
+ */
+@Service
+public class MergePatchService {
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+    private static final Set<String> IMUTAVEIS = Set.of("id", "versao");
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    EntityManager entityManager;
+
+    /** 400 com a lista de violações se algum campo presente for inválido; nada é alterado nesse caso. */
+    @SuppressWarnings("unchecked")
+    public <T> T aplicar(T entidade, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "O corpo deve ser um objeto JSON");
+        }
+        Class<T> tipo = (Class<T>) Hibernate.getClass(entidade);
+        BeanWrapper destino = PropertyAccessorFactory.forBeanPropertyAccess(entidade);
+        Map<String, Object> valores = new LinkedHashMap<>();
+        Set<ConstraintViolation<T>> violacoes = new LinkedHashSet<>();
+
+        for (Iterator<Map.Entry<String, JsonNode>> campos = patch.fields(); campos.hasNext(); ) {
+            Map.Entry<String, JsonNode> campo = campos.next();
+            String nome = campo.getKey();
+            if (IMUTAVEIS.contains(nome) || !destino.isWritableProperty(nome)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo não pode ser alterado: " + nome);
+            }
+            Object valor = converter(destino.getPropertyDescriptor(nome), campo.getValue());
+            violacoes.addAll(validator.validateValue(tipo, nome, valor));
+            valores.put(nome, valor);
+        }
+        if (!violacoes.isEmpty()) {
+            throw new ConstraintViolationException(violacoes);
+        }
+        valores.forEach(destino::setPropertyValue);
+        return entidade;
+    }
+
+    private Object converter(PropertyDescriptor propriedade, JsonNode valor) {
+        Class<?> tipo = propriedade.getPropertyType();
+        if (valor.isNull()) {
+            return null;
+        }
+        if (tipo.isAnnotationPresent(Entity.class)) {
+            JsonNode id = valor.get("id");
+            if (id == null || !id.canConvertToLong()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o id em " + propriedade.getName());
+            }
+            return entityManager.getReference(tipo, id.asLong());
+        }
+        try {
+            JavaType javaType = objectMapper.getTypeFactory().constructType(propriedade.getReadMethod().getGenericReturnType());
+            return objectMapper.convertValue(valor, javaType);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valor inválido para o campo " + propriedade.getName());
+        }
+    }
+}
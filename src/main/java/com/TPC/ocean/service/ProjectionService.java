@@ -0,0 +1,142 @@
+package com.TPC.ocean.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.hateoas.server.core.EmbeddedWrapper;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+
+/**
+ * Listagens com campos selecionados (?fields=id,status,valor). Os campos
+ * viram a lista de colunas de uma consulta Criteria de tuplas, então só as
+ * colunas pedidas são lidas do banco e escritas no JSON. Associações
+ * {@code @ManyToOne} são devolvidas apenas com o id, lido da chave
+ * estrangeira, sem join.
+ */
+@Service
+public class ProjectionService {
+    public static final String PARAM = "fields";
+
+    private static final DefaultLinkRelationProvider RELATIONS = new DefaultLinkRelationProvider();
+    private static final EmbeddedWrappers WRAPPERS = new EmbeddedWrappers(false);
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PagedResourcesAssembler<Map<String, Object>> assembler;
+
+    @Transactional(readOnly = true)
+    public <T> PagedModel<EmbeddedWrapper> listar(Class<T> type, String fields, Pageable pageable) {
+        return listar(type, fields, Specification.where(null), pageable);
+    }
+
+    /** Com filtros: a mesma especificação restringe as linhas e a contagem. */
+    @Transactional(readOnly = true)
+    public <T> PagedModel<EmbeddedWrapper> listar(Class<T> type, String fields, Specification<T> filtro, Pageable pageable) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(type);
+        List<Attribute<? super T, ?>> campos = campos(entity, fields);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        List<Selection<?>> selecoes = new ArrayList<>(campos.size());
+        for (Attribute<? super T, ?> campo : campos) {
+            Path<?> path = campo.isAssociation() ? root.get(campo.getName()).get("id") : root.get(campo.getName());
+            selecoes.add(path.alias(campo.getName()));
+        }
+        query.multiselect(selecoes).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        restringir(query, root, cb, filtro);
+
+        List<Map<String, Object>> conteudo = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultStream()
+            .map(tuple -> linha(tuple, campos))
+            .toList();
+
+        Page<Map<String, Object>> page = PageableExecutionUtils.getPage(conteudo, pageable, () -> contar(type, filtro));
+        PagedModel<EntityModel<Map<String, Object>>> model = assembler.toModel(page);
+        EmbeddedWrapper embedded = WRAPPERS.wrap(conteudo, RELATIONS.getCollectionResourceRelFor(type));
+        return PagedModel.of(List.of(embedded), model.getMetadata(), model.getLinks());
+    }
+
+    private <T> List<Attribute<? super T, ?>> campos(EntityType<T> entity, String fields) {
+        Set<String> nomes = new LinkedHashSet<>();
+        nomes.add("id");
+        Arrays.stream(fields.split(",")).map(String::trim).filter(nome -> !nome.isEmpty()).forEach(nomes::add);
+
+        List<Attribute<? super T, ?>> campos = new ArrayList<>(nomes.size());
+        for (String nome : nomes) {
+            Attribute<? super T, ?> campo;
+            try {
+                campo = entity.getAttribute(nome);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo inválido: " + nome);
+            }
+            if (campo.isCollection()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campo inválido: " + nome);
+            }
+            campos.add(campo);
+        }
+        return campos;
+    }
+
+    private static Map<String, Object> linha(Tuple tuple, List<? extends Attribute<?, ?>> campos) {
+        Map<String, Object> linha = new LinkedHashMap<>();
+        for (Attribute<?, ?> campo : campos) {
+            Object valor = tuple.get(campo.getName());
+            if (campo.isAssociation() && valor != null) {
+                valor = Map.of("id", valor);
+            }
+            linha.put(campo.getName(), valor);
+        }
+        return linha;
+    }
+
+    private <T> long contar(Class<T> type, Specification<T> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root));
+        restringir(query, root, cb, filtro);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static <T> void restringir(CriteriaQuery<?> query, Root<T> root, CriteriaBuilder cb, Specification<T> filtro) {
+        Predicate predicate = filtro.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
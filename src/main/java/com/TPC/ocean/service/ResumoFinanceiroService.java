@@ -0,0 +1,296 @@
+package com.TPC.ocean.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.TPC.ocean.model.ResumoFinanceiro;
+import com.TPC.ocean.model.ResumoFinanceiro.Nivel;
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.repository.ResumoFinanceiroRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Mantém a tabela de resumos financeiros (totais por empresa, por contrato e
+ * por dia) atualizada a cada escrita de transação, na mesma transação do
+ * banco. As variações de uma escrita são somadas por chave e aplicadas com um
+ * UPDATE incremental; só quando a linha ainda não existe é feito um INSERT.
+ *
+ * Toda escrita trava primeiro os contratos envolvidos e depois a linha do
+ * total de cada empresa, antes das demais chaves. A troca de empresa de um
+ * contrato e a reconstrução seguem a mesma ordem, então cada uma delas só
+ * espera pelas escritas das empresas que está tocando.
+ */
+@Service
+public class ResumoFinanceiroService {
+    public record Movimento(Long contratoId, LocalDate dia, long quantidade, double valor) {
+        public static Movimento entrada(Transacao transacao) {
+            return new Movimento(transacao.getContrato().getId(), transacao.getData(), 1, transacao.getValor());
+        }
+
+        public static Movimento saida(Transacao transacao) {
+            return new Movimento(transacao.getContrato().getId(), transacao.getData(), -1, -transacao.getValor());
+        }
+    }
+
+    private static final Comparator<ResumoFinanceiro> ORDEM =
+        Comparator.comparing(ResumoFinanceiro::getNivel).thenComparing(ResumoFinanceiro::getChave);
+
+    private static final String INSERT = """
+        insert into tb_resumos_financeiros (id, chave, nivel, ID_Empresa, ID_Contrato, dia, quantidade, soma)
+        values (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    @Autowired
+    ResumoFinanceiroRepository repository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    TaskExecutor taskExecutor;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int batchSize;
+
+    private final AtomicBoolean emReconstrucao = new AtomicBoolean();
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void aplicar(Collection<Movimento> movimentos) {
+        if (movimentos.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> empresas = repository.empresasDosContratos(
+            movimentos.stream().map(Movimento::contratoId).collect(Collectors.toSet())
+        ).stream().collect(Collectors.toMap(linha -> (Long) linha[0], linha -> (Long) linha[1]));
+
+        Map<String, ResumoFinanceiro> variacoes = new HashMap<>();
+        for (Movimento movimento : movimentos) {
+            Long empresaId = empresas.get(movimento.contratoId());
+            if (empresaId == null) {
+                continue;
+            }
+            somarEmTodosOsNiveis(variacoes, empresaId, movimento.contratoId(), movimento.dia(),
+                movimento.quantidade(), movimento.valor());
+        }
+        aplicarVariacoes(variacoes.values());
+    }
+
+    /**
+     * Leva os totais do contrato para a nova empresa, na transação que altera
+     * o contrato. Sem a empresa anterior, usa a gravada no contrato; sem
+     * transações no contrato não há nada a mover.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void trocarEmpresa(Long contratoId, Long empresaAnterior, Long novaEmpresaId) {
+        List<Object[]> atual = repository.empresasDosContratos(List.of(contratoId));
+        if (atual.isEmpty()) {
+            return;
+        }
+        Long anterior = empresaAnterior != null ? empresaAnterior : (Long) atual.get(0)[1];
+        if (anterior.equals(novaEmpresaId) || !repository.possuiTransacoes(contratoId)) {
+            return;
+        }
+
+        Stream.of(anterior, novaEmpresaId)
+            .map(empresaId -> novo(Nivel.EMPRESA, empresaId, null, null, 0, 0))
+            .sorted(ORDEM)
+            .forEach(this::acumular);
+
+        Map<String, ResumoFinanceiro> variacoes = new HashMap<>();
+        for (ResumoFinanceiro dia : repository.findByNivelAndContratoId(Nivel.CONTRATO_DIA, contratoId)) {
+            somar(variacoes, Nivel.EMPRESA, anterior, null, null, -dia.getQuantidade(), -dia.getSoma());
+            somar(variacoes, Nivel.EMPRESA_DIA, anterior, null, dia.getDia(), -dia.getQuantidade(), -dia.getSoma());
+            somar(variacoes, Nivel.EMPRESA, novaEmpresaId, null, null, dia.getQuantidade(), dia.getSoma());
+            somar(variacoes, Nivel.EMPRESA_DIA, novaEmpresaId, null, dia.getDia(), dia.getQuantidade(), dia.getSoma());
+        }
+        aplicarVariacoes(variacoes.values());
+        repository.moverContrato(contratoId, novaEmpresaId);
+    }
+
+    /**
+     * Agenda o recálculo completo dos resumos a partir de tb_transacoes.
+     * Retorna false se já houver um recálculo em andamento.
+     */
+    public boolean agendarReconstrucao() {
+        if (!emReconstrucao.compareAndSet(false, true)) {
+            return false;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                reconstruir();
+            } finally {
+                emReconstrucao.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isEmReconstrucao() {
+        return emReconstrucao.get();
+    }
+
+    /**
+     * Uma transação por empresa; ao final, remove os resumos de empresas que
+     * já não existem.
+     */
+    private void reconstruir() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<Long> empresas = transaction.execute(status -> repository.idsDasEmpresas());
+        for (Long empresaId : empresas) {
+            transaction.executeWithoutResult(status -> reconstruir(empresaId));
+        }
+        transaction.executeWithoutResult(status -> repository.excluirOrfaos());
+    }
+
+    /**
+     * A linha do total da empresa é travada antes de tudo: escritas que já a
+     * atualizaram terminam antes e entram na contagem; as que chegarem depois
+     * esperam e somam sobre o total recalculado.
+     */
+    private void reconstruir(Long empresaId) {
+        String chave = ResumoFinanceiro.chave(Nivel.EMPRESA, empresaId, null, null);
+        acumular(novo(Nivel.EMPRESA, empresaId, null, null, 0, 0));
+        repository.excluirDaEmpresa(empresaId, Nivel.EMPRESA);
+
+        Map<String, ResumoFinanceiro> agregados = new HashMap<>();
+        AtomicInteger inseridos = new AtomicInteger();
+        try (Stream<Object[]> linhas = repository.totaisPorContratoEDia(empresaId)) {
+            linhas.forEach(linha -> {
+                Long contratoId = (Long) linha[0];
+                LocalDate dia = (LocalDate) linha[1];
+                long quantidade = (Long) linha[2];
+                double soma = ((Number) linha[3]).doubleValue();
+
+                entityManager.persist(novo(Nivel.CONTRATO_DIA, empresaId, contratoId, dia, quantidade, soma));
+                somar(agregados, Nivel.EMPRESA, empresaId, null, null, quantidade, soma);
+                somar(agregados, Nivel.CONTRATO, empresaId, contratoId, null, quantidade, soma);
+                somar(agregados, Nivel.EMPRESA_DIA, empresaId, null, dia, quantidade, soma);
+
+                if (inseridos.incrementAndGet() % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            });
+        }
+
+        ResumoFinanceiro total = agregados.remove(chave);
+        agregados.values().forEach(entityManager::persist);
+        if (total == null) {
+            repository.excluirChave(chave);
+        } else {
+            repository.substituir(chave, total.getQuantidade(), total.getSoma());
+        }
+    }
+
+    private void aplicarVariacoes(Collection<ResumoFinanceiro> variacoes) {
+        variacoes.stream().sorted(ORDEM).forEach(variacao -> {
+            // o total da empresa é tocado mesmo sem variação: é a trava que a reconstrução espera
+            if (variacao.getNivel() != Nivel.EMPRESA && variacao.getQuantidade() == 0 && variacao.getSoma() == 0) {
+                return;
+            }
+            acumular(variacao);
+        });
+    }
+
+    private void acumular(ResumoFinanceiro variacao) {
+        while (repository.acumular(variacao.getChave(), variacao.getQuantidade(), variacao.getSoma()) == 0) {
+            if (inserir(variacao)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * INSERT dentro de um savepoint. Se outra transação gravou a mesma chave
+     * depois do UPDATE, a chave única recusa este INSERT; volta-se ao
+     * savepoint e o chamador repete o UPDATE sobre a linha já existente.
+     */
+    private boolean inserir(ResumoFinanceiro resumo) {
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+        BeforeExecutionGenerator gerador = (BeforeExecutionGenerator) sessao.getEntityPersister(null, resumo).getGenerator();
+        Long id = (Long) gerador.generate(sessao, resumo, null, EventType.INSERT);
+
+        return sessao.doReturningWork(connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                insert.setLong(1, id);
+                insert.setString(2, resumo.getChave());
+                insert.setString(3, resumo.getNivel().name());
+                insert.setLong(4, resumo.getEmpresaId());
+                insert.setObject(5, resumo.getContratoId(), Types.BIGINT);
+                insert.setObject(6, resumo.getDia(), Types.DATE);
+                insert.setLong(7, resumo.getQuantidade());
+                insert.setDouble(8, resumo.getSoma());
+                insert.executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                return false;
+            }
+        });
+    }
+
+    private static void somarEmTodosOsNiveis(
+        Map<String, ResumoFinanceiro> resumos, Long empresaId, Long contratoId, LocalDate dia, long quantidade, double soma)
+    {
+        somar(resumos, Nivel.EMPRESA, empresaId, null, null, quantidade, soma);
+        somar(resumos, Nivel.CONTRATO, empresaId, contratoId, null, quantidade, soma);
+        somar(resumos, Nivel.EMPRESA_DIA, empresaId, null, dia, quantidade, soma);
+        somar(resumos, Nivel.CONTRATO_DIA, empresaId, contratoId, dia, quantidade, soma);
+    }
+
+    private static void somar(
+        Map<String, ResumoFinanceiro> resumos, Nivel nivel, Long empresaId, Long contratoId, LocalDate dia, long quantidade, double soma)
+    {
+        ResumoFinanceiro resumo = resumos.computeIfAbsent(
+            ResumoFinanceiro.chave(nivel, empresaId, contratoId, dia),
+            chave -> novo(nivel, empresaId, contratoId, dia, 0, 0)
+        );
+        resumo.setQuantidade(resumo.getQuantidade() + quantidade);
+        resumo.setSoma(resumo.getSoma() + soma);
+    }
+
+    private static ResumoFinanceiro novo(Nivel nivel, Long empresaId, Long contratoId, LocalDate dia, long quantidade, double soma) {
+        return ResumoFinanceiro.builder()
+            .chave(ResumoFinanceiro.chave(nivel, empresaId, contratoId, dia))
+            .nivel(nivel)
+            .empresaId(empresaId)
+            .contratoId(contratoId)
+            .dia(dia)
+            .quantidade(quantidade)
+            .soma(soma)
+            .build();
+    }
+}
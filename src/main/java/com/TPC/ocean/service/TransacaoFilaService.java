@@ -0,0 +1,365 @@
+package com.TPC.ocean.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.IngestaoStatus;
+import com.TPC.ocean.model.IngestaoTransacao;
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.repository.IngestaoTransacaoRepository;
+import com.TPC.ocean.util.Journal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ingestão assíncrona de transações com commit em grupo. Cada transação
+ * aceita é gravada e sincronizada no journal local antes da resposta 202 e
+ * entra numa fila limitada; uma única thread drena a fila e grava grupos de
+ * até {@code ocean.ingestao.grupo} transações por commit, usando o mesmo
+ * caminho do cadastro em lote. Com a fila cheia nada é aceito (429).
+ *
+ * O journal é dividido em segmentos de até {@code ocean.ingestao.segmento};
+ * cada segmento fechado é excluído assim que todos os seus registros foram
+ * gravados, e o atual é esvaziado quando não resta nada pendente. Na
+ * inicialização, os registros que sobraram e cujo ticket ainda não está no
+ * banco são gravados antes de qualquer registro novo.
+ *
+ * Os tickets gravados ficam no banco por {@code ocean.ingestao.retencao} e
+ * são excluídos pela própria thread da fila a cada
+ * {@code ocean.ingestao.limpeza}. Um ticket só sai do banco quando não existe
+ * mais nenhum segmento do journal que possa contê-lo, para que a recuperação
+ * nunca grave a mesma transação duas vezes.
+ */
+@Service
+public class TransacaoFilaService implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TransacaoFilaService.class);
+    private static final Duration ESPERA_APOS_ERRO = Duration.ofSeconds(1);
+    /** Tickets consultados no banco por vez durante a recuperação. */
+    private static final int LOTE_RECUPERACAO = 1000;
+
+    record Pedido(String ticket, Long contratoId, LocalDate data, Double valor, String descricao) {
+        Transacao toTransacao() {
+            return Transacao.builder()
+                .contrato(Contrato.builder().id(contratoId).build())
+                .data(data)
+                .valor(valor)
+                .descricao(descricao)
+                .build();
+        }
+    }
+
+    @Autowired
+    TransacaoIngestService ingestService;
+
+    @Autowired
+    IngestaoTransacaoRepository ingestaoRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${ocean.ingestao.capacidade:10000}")
+    int capacidade;
+
+    @Value("${ocean.ingestao.grupo:500}")
+    int tamanhoGrupo;
+
+    @Value("${ocean.ingestao.journal:data/transacoes.journal}")
+    Path arquivoJournal;
+
+    @Value("${ocean.ingestao.segmento:64MB}")
+    DataSize tamanhoSegmento;
+
+    @Value("${ocean.ingestao.retencao:7d}")
+    Duration retencao;
+
+    @Value("${ocean.ingestao.limpeza:1h}")
+    Duration intervaloLimpeza;
+
+    private BlockingQueue<Pedido> fila;
+    private Journal journal;
+    private final Deque<Pedido> recuperados = new ArrayDeque<>();
+    private final Map<String, IngestaoStatus> pendentes = new ConcurrentHashMap<>();
+    /** Segmento do journal de cada ticket pendente. */
+    private final Map<String, Long> segmentos = new ConcurrentHashMap<>();
+    /** Registros ainda não gravados por segmento; protegido pelo lock do journal. */
+    private final Map<Long, Integer> abertos = new HashMap<>();
+    private final Cache<String, IngestaoStatus> falhas = Caffeine.newBuilder()
+        .maximumSize(10_000)
+        .expireAfterWrite(Duration.ofHours(1))
+        .build();
+    private volatile boolean ativo;
+    private Thread drenador;
+    private Instant proximaLimpeza = Instant.now();
+
+    @PostConstruct
+    void abrir() throws IOException {
+        fila = new ArrayBlockingQueue<>(capacidade);
+        journal = new Journal(arquivoJournal, tamanhoSegmento.toBytes());
+        recuperar();
+        Gauge.builder("transacoes.fila.tamanho", fila, BlockingQueue::size)
+            .description("Transações aceitas aguardando o commit em grupo")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void fechar() throws IOException {
+        journal.close();
+    }
+
+    /** Grava no journal e enfileira; vazio quando a fila está cheia. */
+    public Optional<IngestaoStatus> enfileirar(Transacao transacao) {
+        Pedido pedido = new Pedido(UUID.randomUUID().toString(), transacao.getContrato().getId(),
+            transacao.getData(), transacao.getValor(), transacao.getDescricao());
+        IngestaoStatus status = IngestaoStatus.pendente(pedido.ticket());
+        try {
+            String linha = objectMapper.writeValueAsString(pedido);
+            synchronized (journal) {
+                if (fila.remainingCapacity() == 0) {
+                    return Optional.empty();
+                }
+                registrar(pedido.ticket(), journal.escrever(linha));
+                pendentes.put(pedido.ticket(), status);
+                fila.add(pedido);
+            }
+            // fora do lock: requisições simultâneas compartilham o mesmo fsync
+            journal.sincronizar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Optional.of(status);
+    }
+
+    public Optional<IngestaoStatus> status(String ticket) {
+        IngestaoStatus status = pendentes.get(ticket);
+        if (status == null) {
+            status = falhas.getIfPresent(ticket);
+        }
+        if (status != null) {
+            return Optional.of(status);
+        }
+        return ingestaoRepository.findById(ticket).map(IngestaoStatus::gravada);
+    }
+
+    @Override
+    public void start() {
+        ativo = true;
+        drenador = new Thread(this::drenar, "transacoes-fila");
+        drenador.start();
+    }
+
+    @Override
+    public void stop() {
+        ativo = false;
+        if (drenador == null) {
+            return;
+        }
+        try {
+            drenador.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ativo;
+    }
+
+    /** Lê o journal em lotes; só os registros ainda não gravados ficam em memória. */
+    private void recuperar() throws IOException {
+        Map<String, Pedido> lote = new LinkedHashMap<>();
+        Map<String, Long> segmentosDoLote = new HashMap<>();
+        long[] gravados = {0};
+        journal.ler((segmento, linha) -> {
+            Pedido pedido = objectMapper.readValue(linha, Pedido.class);
+            lote.put(pedido.ticket(), pedido);
+            segmentosDoLote.put(pedido.ticket(), segmento);
+            if (lote.size() == LOTE_RECUPERACAO) {
+                gravados[0] += recuperar(lote, segmentosDoLote);
+            }
+        });
+        gravados[0] += recuperar(lote, segmentosDoLote);
+        synchronized (journal) {
+            compactar();
+        }
+        if (!recuperados.isEmpty() || gravados[0] > 0) {
+            log.info("Journal de transações: {} registros recuperados, {} já gravados", recuperados.size(), gravados[0]);
+        }
+    }
+
+    private int recuperar(Map<String, Pedido> lote, Map<String, Long> segmentosDoLote) {
+        Set<String> gravados = ingestaoRepository.findAllById(lote.keySet())
+            .stream().map(IngestaoTransacao::getTicket).collect(Collectors.toSet());
+        for (Pedido pedido : lote.values()) {
+            if (!gravados.contains(pedido.ticket())) {
+                recuperados.add(pedido);
+                pendentes.put(pedido.ticket(), IngestaoStatus.pendente(pedido.ticket()));
+                synchronized (journal) {
+                    registrar(pedido.ticket(), segmentosDoLote.get(pedido.ticket()));
+                }
+            }
+        }
+        lote.clear();
+        segmentosDoLote.clear();
+        return gravados.size();
+    }
+
+    private void drenar() {
+        List<Pedido> grupo = new ArrayList<>(tamanhoGrupo);
+        while (ativo) {
+            try {
+                limpar();
+                if (grupo.isEmpty() && !proximoGrupo(grupo)) {
+                    continue;
+                }
+                gravar(grupo);
+                synchronized (journal) {
+                    compactar();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException | IOException e) {
+                // banco ou disco indisponível: o grupo continua no journal e é tentado de novo
+                log.warn("Falha ao gravar grupo de {} transações; nova tentativa em {}", grupo.size(), ESPERA_APOS_ERRO, e);
+                try {
+                    Thread.sleep(ESPERA_APOS_ERRO);
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean proximoGrupo(List<Pedido> grupo) throws InterruptedException {
+        while (!recuperados.isEmpty() && grupo.size() < tamanhoGrupo) {
+            grupo.add(recuperados.poll());
+        }
+        if (!grupo.isEmpty()) {
+            return true;
+        }
+        Pedido primeiro = fila.poll(200, TimeUnit.MILLISECONDS);
+        if (primeiro == null) {
+            return false;
+        }
+        grupo.add(primeiro);
+        fila.drainTo(grupo, tamanhoGrupo - 1);
+        return true;
+    }
+
+    /**
+     * Grava o grupo num único commit. Se algum registro viola uma restrição
+     * do banco, o grupo é regravado um a um e só os registros inválidos são
+     * descartados; os gravados saem do grupo para não serem repetidos.
+     */
+    private void gravar(List<Pedido> grupo) {
+        try {
+            ingestService.inserir(grupo.stream().map(Pedido::toTransacao).toList(), grupo.stream().map(Pedido::ticket).toList());
+            grupo.forEach(this::concluir);
+            grupo.clear();
+            return;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Grupo de {} transações rejeitado pelo banco; gravando individualmente", grupo.size());
+        }
+        for (Iterator<Pedido> iterator = grupo.iterator(); iterator.hasNext(); ) {
+            Pedido pedido = iterator.next();
+            try {
+                ingestService.inserir(List.of(pedido.toTransacao()), List.of(pedido.ticket()));
+            } catch (DataIntegrityViolationException e) {
+                falhas.put(pedido.ticket(), IngestaoStatus.falhou(pedido.ticket(), "Transação rejeitada pelo banco"));
+            }
+            concluir(pedido);
+            iterator.remove();
+        }
+    }
+
+    /** Deve ser chamado com o lock do journal. */
+    private void registrar(String ticket, long segmento) {
+        segmentos.put(ticket, segmento);
+        abertos.merge(segmento, 1, Integer::sum);
+    }
+
+    private void concluir(Pedido pedido) {
+        pendentes.remove(pedido.ticket());
+        Long segmento = segmentos.remove(pedido.ticket());
+        synchronized (journal) {
+            abertos.computeIfPresent(segmento, (chave, quantidade) -> quantidade == 1 ? null : quantidade - 1);
+        }
+    }
+
+    /** Exclui os segmentos já gravados; deve ser chamado com o lock do journal. */
+    private void compactar() throws IOException {
+        for (long segmento : journal.fechados()) {
+            if (!abertos.containsKey(segmento)) {
+                journal.excluir(segmento);
+            }
+        }
+        if (abertos.isEmpty()) {
+            journal.truncar();
+        }
+    }
+
+    /**
+     * Exclui os tickets mais antigos que a retenção e que o segmento mais
+     * antigo do journal, em lotes de {@code ocean.ingestao.grupo}.
+     */
+    private void limpar() {
+        Instant agora = Instant.now();
+        if (agora.isBefore(proximaLimpeza)) {
+            return;
+        }
+        proximaLimpeza = agora.plus(intervaloLimpeza);
+        Instant inicio;
+        synchronized (journal) {
+            inicio = journal.inicio();
+        }
+        Instant limite = agora.minus(retencao).isBefore(inicio) ? agora.minus(retencao) : inicio;
+        long excluidos = 0;
+        for (int quantidade = tamanhoGrupo; quantidade == tamanhoGrupo; excluidos += quantidade) {
+            quantidade = ingestService.excluirTickets(limite, tamanhoGrupo);
+        }
+        if (excluidos > 0) {
+            log.info("Tickets de ingestão anteriores a {} excluídos: {}", limite, excluidos);
+        }
+    }
+}
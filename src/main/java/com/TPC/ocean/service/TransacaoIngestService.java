@@ -0,0 +1,91 @@
+package com.TPC.ocean.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.IngestaoTransacao;
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.repository.IngestaoTransacaoRepository;
+import com.TPC.ocean.service.BuscaService.Tipo;
+import com.TPC.ocean.service.ResumoFinanceiroService.Movimento;
+import com.TPC.ocean.util.EntityReferences;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Inserção em lote de transações. Os ids vêm de uma sequence com alocação em
+ * blocos, o que permite ao Hibernate agrupar os INSERTs em batches JDBC; o
+ * contexto de persistência é descarregado a cada batch para manter a memória
+ * constante.
+ */
+@Service
+public class TransacaoIngestService {
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ResumoFinanceiroService resumoService;
+
+    @Autowired
+    BuscaService buscaService;
+
+    @Autowired
+    IngestaoTransacaoRepository ingestaoRepository;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int batchSize;
+
+    @Transactional
+    public List<Long> inserir(List<Transacao> transacoes) {
+        return inserir(transacoes, List.of());
+    }
+
+    /**
+     * Insere o lote e, quando há tickets (um por transação, na mesma ordem),
+     * grava cada ticket junto com o id gerado, na mesma transação.
+     */
+    @Transactional
+    public List<Long> inserir(List<Transacao> transacoes, List<String> tickets) {
+        List<Long> ids = new ArrayList<>(transacoes.size());
+        List<Movimento> movimentos = new ArrayList<>(transacoes.size());
+        Map<Long, String> descricoes = new LinkedHashMap<>();
+        Instant gravadoEm = Instant.now();
+        for (int i = 0; i < transacoes.size(); i++) {
+            Transacao transacao = transacoes.get(i);
+            transacao.setId(null);
+            transacao.setContrato(EntityReferences.bind(entityManager, Contrato.class, transacao.getContrato(), Contrato::getId));
+            entityManager.persist(transacao);
+            ids.add(transacao.getId());
+            movimentos.add(Movimento.entrada(transacao));
+            descricoes.put(transacao.getId(), transacao.getDescricao());
+            if (!tickets.isEmpty()) {
+                entityManager.persist(new IngestaoTransacao(tickets.get(i), transacao.getId(), gravadoEm));
+            }
+
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        resumoService.aplicar(movimentos);
+        buscaService.indexar(Tipo.TRANSACAO, descricoes);
+        return ids;
+    }
+
+    /** Exclui até {@code lote} tickets da fila gravados antes do limite. */
+    @Transactional
+    public int excluirTickets(Instant limite, int lote) {
+        List<String> tickets = ingestaoRepository.ticketsAnteriores(limite, Limit.of(lote));
+        return tickets.isEmpty() ? 0 : ingestaoRepository.excluir(tickets);
+    }
+}
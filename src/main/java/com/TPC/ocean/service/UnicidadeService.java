@@ -0,0 +1,117 @@
+package com.TPC.ocean.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.TPC.ocean.util.BloomFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verificação de unicidade de CNPJ, CPF e e-mail antes do cadastro. Cada
+ * chave tem um {@link BloomFilter} carregado do banco na subida e alimentado
+ * a cada escrita: quando o filtro responde que o valor nunca foi visto, o
+ * cadastro segue sem consultar o banco; só os prováveis duplicados fazem a
+ * busca pelo índice único. O índice único continua sendo a garantia final
+ * contra escritas concorrentes.
+ */
+@Service
+public class UnicidadeService {
+    private static final long CAPACIDADE_MINIMA = 100_000;
+    private static final double FALSO_POSITIVO = 0.01;
+
+    public enum Chave {
+        EMPRESA_CNPJ("Empresa", "cnpj", "CNPJ já cadastrado"),
+        INSTITUICAO_CNPJ("Instituicao", "cnpj", "CNPJ já cadastrado"),
+        PESSOA_FISICA_CPF("PessoaFisica", "cpf", "CPF já cadastrado"),
+        USUARIO_EMAIL("Usuario", "email", "E-mail já cadastrado");
+
+        final String entidade;
+        final String campo;
+        final String mensagem;
+
+        Chave(String entidade, String campo, String mensagem) {
+            this.entidade = entidade;
+            this.campo = campo;
+            this.mensagem = mensagem;
+        }
+    }
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final Map<Chave, BloomFilter> filtros = new ConcurrentHashMap<>();
+    private final Set<Chave> carregados = ConcurrentHashMap.newKeySet();
+
+    /**
+     * O filtro é publicado antes da carga para receber as escritas que
+     * acontecerem durante ela, mas só passa a responder depois de completo.
+     * É dimensionado com folga sobre o volume atual; se ficar saturado, a taxa
+     * de falso positivo sobe até a próxima subida, sem afetar o resultado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (Chave chave : Chave.values()) {
+            carregados.remove(chave);
+            transaction.executeWithoutResult(status -> {
+                long total = entityManager.createQuery("select count(e) from " + chave.entidade + " e", Long.class).getSingleResult();
+                BloomFilter filtro = new BloomFilter(Math.max(total * 2, CAPACIDADE_MINIMA), FALSO_POSITIVO);
+                filtros.put(chave, filtro);
+                String jpql = "select e." + chave.campo + " from " + chave.entidade + " e";
+                try (Stream<String> valores = entityManager.createQuery(jpql, String.class).getResultStream()) {
+                    valores.forEach(filtro::adicionar);
+                }
+            });
+            carregados.add(chave);
+        }
+    }
+
+    /** 409 se o valor já pertence a outro registro; {@code id} é o registro sendo atualizado. */
+    public void exigirUnico(Chave chave, String valor, Long id) {
+        if (valor != null && existe(chave, valor, id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, chave.mensagem);
+        }
+    }
+
+    public void registrar(Chave chave, String valor) {
+        BloomFilter filtro = filtros.get(chave);
+        if (filtro != null && valor != null) {
+            filtro.adicionar(valor);
+        }
+    }
+
+    private boolean existe(Chave chave, String valor, Long id) {
+        if (carregados.contains(chave) && !filtros.get(chave).talvezContenha(valor)) {
+            meterRegistry.counter("unicidade.verificacoes", "chave", chave.name(), "origem", "filtro").increment();
+            return false;
+        }
+        meterRegistry.counter("unicidade.verificacoes", "chave", chave.name(), "origem", "banco").increment();
+        List<Long> ids = entityManager
+            .createQuery("select e.id from " + chave.entidade + " e where e." + chave.campo + " = :valor", Long.class)
+            .setParameter("valor", valor)
+            .setMaxResults(1)
+            .getResultList();
+        return !ids.isEmpty() && !ids.get(0).equals(id);
+    }
+}
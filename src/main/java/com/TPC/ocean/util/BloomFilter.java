@@ -0,0 +1,79 @@
+package com.TPC.ocean.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para strings, seguro para uso concorrente sem lock. Um
+ * "não" é definitivo; um "talvez" precisa ser confirmado na fonte. Remoções
+ * não são suportadas: chaves apagadas só custam uma consulta a mais.
+ */
+public class BloomFilter {
+    private final AtomicLongArray palavras;
+    private final long bits;
+    private final int funcoes;
+
+    /** Dimensiona para {@code esperados} elementos com a taxa de falso positivo informada. */
+    public BloomFilter(long esperados, double falsoPositivo) {
+        long n = Math.max(esperados, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.palavras = new AtomicLongArray(Math.toIntExact((m + 63) / 64));
+        this.bits = palavras.length() * 64L;
+        this.funcoes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    public void adicionar(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= funcoes; i++) {
+            long bit = indice(h1 + (long) i * h2);
+            int palavra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long atual = palavras.get(palavra);
+            while ((atual & mascara) == 0 && !palavras.compareAndSet(palavra, atual, atual | mascara)) {
+                atual = palavras.get(palavra);
+            }
+        }
+    }
+
+    public boolean talvezContenha(String valor) {
+        long hash = hash(valor);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= funcoes; i++) {
+            long bit = indice(h1 + (long) i * h2);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bits() {
+        return bits;
+    }
+
+    public int funcoes() {
+        return funcoes;
+    }
+
+    private long indice(long combinado) {
+        return Math.floorMod(combinado, bits);
+    }
+
+    /** FNV-1a de 64 bits sobre os bytes UTF-8, finalizado com o mix do MurmurHash3. */
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
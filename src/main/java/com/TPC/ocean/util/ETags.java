@@ -0,0 +1,49 @@
+package com.TPC.ocean.util;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class ETags {
+    /** ETag forte de um item, a partir das versões da entidade e das associações serializadas com ela. */
+    public static String strong(String versoes) {
+        return "\"" + versoes + "\"";
+    }
+
+    /** ETag fraca de uma página, a partir da versão do cache da listagem. */
+    public static String weak(long versao) {
+        return "W/\"" + versao + "\"";
+    }
+
+    /**
+     * Versão da própria entidade em um If-Match, ou seja, a primeira parte da
+     * ETag forte; {@code null} quando o cabeçalho está ausente ou é "*". ETags
+     * fracas ou de outra origem nunca casam (412).
+     */
+    public static Long versao(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.strip();
+        if (etag.contains(",")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe uma única ETag em If-Match");
+        }
+        if (etag.length() < 2 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "ETag não corresponde à versão atual");
+        }
+        String versao = etag.substring(1, etag.length() - 1).split("\\.", 2)[0];
+        try {
+            return Long.valueOf(versao);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "ETag não corresponde à versão atual");
+        }
+    }
+
+    public static String versoes(Object... partes) {
+        return Arrays.stream(partes)
+            .map(parte -> parte == null ? "-" : parte.toString())
+            .collect(Collectors.joining("."));
+    }
+}
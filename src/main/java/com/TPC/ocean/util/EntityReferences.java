@@ -0,0 +1,18 @@
+package com.TPC.ocean.util;
+
+import java.util.function.Function;
+
+import jakarta.persistence.EntityManager;
+
+public class EntityReferences {
+    /**
+     * Troca uma associação recebida no corpo da requisição, que traz só o id e
+     * nenhuma versão, por uma referência gerenciada pelo EntityManager.
+     */
+    public static <T> T bind(EntityManager entityManager, Class<T> type, T detached, Function<T, Long> id) {
+        if (detached == null || id.apply(detached) == null) {
+            return null;
+        }
+        return entityManager.getReference(type, id.apply(detached));
+    }
+}
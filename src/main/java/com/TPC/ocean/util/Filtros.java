@@ -0,0 +1,30 @@
+package com.TPC.ocean.util;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Predicados de filtro usados pelas listagens. Um valor nulo significa
+ * "sem filtro" e gera uma {@link Specification} nula, que
+ * {@link Specification#allOf} ignora.
+ */
+public class Filtros {
+    public static <T> Specification<T> igual(String atributo, Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(atributo), valor);
+    }
+
+    public static <T, V extends Comparable<? super V>> Specification<T> entre(String atributo, V de, V ate) {
+        if (de == null && ate == null) {
+            return null;
+        }
+        if (ate == null) {
+            return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(atributo), de);
+        }
+        if (de == null) {
+            return (root, query, cb) -> cb.lessThanOrEqualTo(root.get(atributo), ate);
+        }
+        return (root, query, cb) -> cb.between(root.get(atributo), de, ate);
+    }
+}
@@ -1,17 +1,57 @@
 package com.TPC.ocean.util;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 public class HateoasHelper {
+    private static final LinkRelation DELETE = LinkRelation.of("delete");
+    private static final LinkRelation CONTENTS = LinkRelation.of("contents");
+    private static final String COLECOES = HateoasHelper.class.getName() + ".colecoes";
+
+    /** Caminho do @RequestMapping de cada controller, resolvido uma única vez. */
+    private static final ClassValue<String> CAMINHOS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> controllerClass) {
+            RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(controllerClass, RequestMapping.class);
+            String caminho = mapping == null || mapping.path().length == 0 ? "" : mapping.path()[0];
+            if (!caminho.isEmpty() && !caminho.startsWith("/")) caminho = "/" + caminho;
+            return caminho.endsWith("/") ? caminho.substring(0, caminho.length() - 1) : caminho;
+        }
+    };
+
     public static <T> EntityModel<T> createModelWithLinks(T entity, Class<?> controllerClass, Long id) {
-        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
-        
-        Link selfLink = Link.of(baseUrl + "/" + controllerClass.getSimpleName().toLowerCase() + "/" + id);
-        Link deleteLink = Link.of(baseUrl + "/" + controllerClass.getSimpleName().toLowerCase() + "/" + id + "/delete");
-        Link contentsLink = Link.of(baseUrl + "/" + controllerClass.getSimpleName().toLowerCase() + "/contents");
-        
-        return EntityModel.of(entity, selfLink.withSelfRel(), deleteLink.withRel("delete"), contentsLink.withRel("contents"));
+        Link contents = colecao(controllerClass);
+        String self = contents.getHref() + "/" + id;
+        return EntityModel.of(entity, List.of(Link.of(self, IanaLinkRelations.SELF), Link.of(self, DELETE), contents));
+    }
+
+    /**
+     * Link da coleção do controller, montado uma vez por requisição e reaproveitado
+     * por todos os itens da página. Fora de uma requisição o link é relativo.
+     */
+    @SuppressWarnings("unchecked")
+    private static Link colecao(Class<?> controllerClass) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Link.of(CAMINHOS.get(controllerClass), CONTENTS);
+        }
+        Map<Class<?>, Link> colecoes = (Map<Class<?>, Link>) attributes.getAttribute(COLECOES, RequestAttributes.SCOPE_REQUEST);
+        if (colecoes == null) {
+            colecoes = new HashMap<>(4);
+            attributes.setAttribute(COLECOES, colecoes, RequestAttributes.SCOPE_REQUEST);
+        }
+        return colecoes.computeIfAbsent(controllerClass, type -> Link.of(
+                ServletUriComponentsBuilder.fromCurrentContextPath().toUriString() + CAMINHOS.get(type), CONTENTS));
     }
 }
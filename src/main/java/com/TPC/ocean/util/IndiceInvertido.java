@@ -0,0 +1,165 @@
+package com.TPC.ocean.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória com ranking BM25. O texto é normalizado sem
+ * acentos e em minúsculas, quebrado em palavras e filtrado por uma lista de
+ * stopwords do português, tanto na indexação quanto na consulta.
+ */
+public class IndiceInvertido {
+    public record Resultado(Long id, double pontuacao) {}
+
+    private record Documento(String[] termos, int tamanho) {}
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "o", "as", "os", "um", "uma", "uns", "umas", "ao", "aos",
+        "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos", "num", "numa",
+        "por", "pelo", "pela", "pelos", "pelas", "para", "pra", "com", "sem", "sobre", "entre", "ate",
+        "e", "ou", "mas", "que", "se", "como", "mais", "muito", "ja", "nao", "sim",
+        "este", "esta", "estes", "estas", "esse", "essa", "esses", "essas", "isto", "isso",
+        "aquele", "aquela", "seu", "sua", "seus", "suas", "foi", "ser", "sao", "ha"
+    );
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalTermos;
+
+    public static List<String> tokens(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARADORES.split(normalizado)) {
+            if (token.length() > 1 && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /** Indexa (ou reindexa) o texto de um documento. */
+    public void indexar(Long id, String texto) {
+        List<String> tokens = tokens(texto);
+        lock.writeLock().lock();
+        try {
+            removerSemLock(id);
+            if (tokens.isEmpty()) {
+                return;
+            }
+            for (String token : tokens) {
+                postings.computeIfAbsent(token, t -> new HashMap<>()).merge(id, 1, Integer::sum);
+            }
+            documentos.put(id, new Documento(tokens.stream().distinct().toArray(String[]::new), tokens.size()));
+            totalTermos += tokens.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            removerSemLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void limpar() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentos.clear();
+            totalTermos = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Os {@code limite} documentos mais relevantes para a consulta, do mais para o menos relevante. */
+    public List<Resultado> buscar(String consulta, int limite) {
+        List<String> termos = tokens(consulta).stream().distinct().toList();
+        if (termos.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> pontuacoes = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int n = documentos.size();
+            double tamanhoMedio = n == 0 ? 0 : (double) totalTermos / n;
+            for (String termo : termos) {
+                Map<Long, Integer> docs = postings.get(termo);
+                if (docs == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<Long, Integer> doc : docs.entrySet()) {
+                    int tf = doc.getValue();
+                    int tamanho = documentos.get(doc.getKey()).tamanho();
+                    double peso = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * tamanho / tamanhoMedio));
+                    pontuacoes.merge(doc.getKey(), peso, Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Comparator<Resultado> ordem = Comparator.comparingDouble(Resultado::pontuacao)
+            .thenComparing(Resultado::id, Comparator.reverseOrder());
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(limite + 1, ordem);
+        pontuacoes.forEach((id, pontuacao) -> {
+            melhores.add(new Resultado(id, pontuacao));
+            if (melhores.size() > limite) {
+                melhores.poll();
+            }
+        });
+
+        List<Resultado> resultados = new ArrayList<>(melhores);
+        resultados.sort(ordem.reversed());
+        return resultados;
+    }
+
+    private void removerSemLock(Long id) {
+        Documento documento = documentos.remove(id);
+        if (documento == null) {
+            return;
+        }
+        for (String termo : documento.termos()) {
+            Map<Long, Integer> docs = postings.get(termo);
+            if (docs != null && docs.remove(id) != null && docs.isEmpty()) {
+                postings.remove(termo);
+            }
+        }
+        totalTermos -= documento.tamanho();
+    }
+}
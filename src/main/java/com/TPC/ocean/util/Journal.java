@@ -0,0 +1,188 @@
+package com.TPC.ocean.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Arquivo local só de acréscimo, uma linha por registro, dividido em
+ * segmentos {@code <arquivo>.<n>}. Quando o segmento atual passa do tamanho
+ * configurado, a próxima escrita abre um novo; os segmentos anteriores só
+ * são lidos na recuperação e podem ser excluídos quando tudo o que contêm já
+ * foi gravado. O número de cada segmento é o instante da sua criação, em
+ * milissegundos, então nenhum registro dele é anterior a {@link #inicio}.
+ *
+ * A escrita e o fsync são separados para que várias threads possam escrever
+ * e compartilhar o mesmo fsync; uma linha sem quebra no fim é um registro que
+ * não chegou a ser confirmado e é descartada ao abrir o arquivo.
+ */
+public class Journal implements Closeable {
+    @FunctionalInterface
+    public interface Leitor {
+        void ler(long segmento, String linha) throws IOException;
+    }
+
+    private final Path arquivo;
+    private final long tamanhoSegmento;
+    private final TreeSet<Long> segmentos = new TreeSet<>();
+    private volatile FileChannel channel;
+    private long atual;
+
+    public Journal(Path arquivo, long tamanhoSegmento) throws IOException {
+        this.arquivo = arquivo.toAbsolutePath();
+        this.tamanhoSegmento = tamanhoSegmento;
+        Files.createDirectories(this.arquivo.getParent());
+        String prefixo = this.arquivo.getFileName() + ".";
+        try (Stream<Path> arquivos = Files.list(this.arquivo.getParent())) {
+            arquivos.map(caminho -> caminho.getFileName().toString())
+                .filter(nome -> nome.startsWith(prefixo) && nome.substring(prefixo.length()).chars().allMatch(Character::isDigit))
+                .map(nome -> Long.parseLong(nome.substring(prefixo.length())))
+                .forEach(segmentos::add);
+        }
+        if (segmentos.isEmpty()) {
+            abrir(novoSegmento());
+            return;
+        }
+        abrir(segmentos.last());
+        // só o último segmento pode terminar num registro incompleto
+        long fim = ultimaQuebra();
+        if (fim < channel.size()) {
+            channel.truncate(fim);
+        }
+        channel.position(fim);
+    }
+
+    /** Grava o registro e devolve o segmento em que ele ficou. */
+    public synchronized long escrever(String linha) throws IOException {
+        if (channel.position() >= tamanhoSegmento) {
+            rotacionar();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((linha + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return atual;
+    }
+
+    /** Garante no disco tudo o que foi escrito até aqui. */
+    public void sincronizar() throws IOException {
+        FileChannel escrito = channel;
+        try {
+            escrito.force(false);
+        } catch (ClosedChannelException e) {
+            // segmento fechado por uma rotação, que já o sincronizou
+            if (escrito == channel) {
+                throw e;
+            }
+        }
+    }
+
+    /** Lê os registros em ordem, um segmento de cada vez, sem carregar o arquivo inteiro. */
+    public synchronized void ler(Leitor leitor) throws IOException {
+        for (long segmento : segmentos) {
+            try (BufferedReader linhas = Files.newBufferedReader(segmento(segmento), StandardCharsets.UTF_8)) {
+                for (String linha = linhas.readLine(); linha != null; linha = linhas.readLine()) {
+                    if (!linha.isEmpty()) {
+                        leitor.ler(segmento, linha);
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized List<String> ler() throws IOException {
+        List<String> linhas = new ArrayList<>();
+        ler((segmento, linha) -> linhas.add(linha));
+        return linhas;
+    }
+
+    /** Segmentos que não recebem mais escritas, do mais antigo ao mais novo. */
+    public synchronized List<Long> fechados() {
+        return List.copyOf(segmentos.headSet(atual));
+    }
+
+    /** Exclui um segmento fechado; o atual só pode ser esvaziado com {@link #truncar}. */
+    public synchronized void excluir(long segmento) throws IOException {
+        if (segmento != atual && segmentos.remove(segmento)) {
+            Files.deleteIfExists(segmento(segmento));
+        }
+    }
+
+    /** Criação do segmento mais antigo que ainda existe. */
+    public synchronized Instant inicio() {
+        return Instant.ofEpochMilli(segmentos.first());
+    }
+
+    /**
+     * Esvazia o segmento atual trocando-o por um novo, para que {@link #inicio}
+     * avance mesmo quando o tamanho do segmento nunca é atingido.
+     */
+    public synchronized void truncar() throws IOException {
+        if (channel.size() == 0) {
+            return;
+        }
+        long anterior = atual;
+        rotacionar();
+        excluir(anterior);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void rotacionar() throws IOException {
+        FileChannel anterior = channel;
+        anterior.force(false);
+        abrir(novoSegmento());
+        anterior.close();
+    }
+
+    private long novoSegmento() {
+        long segmento = Math.max(System.currentTimeMillis(), segmentos.isEmpty() ? 0 : segmentos.last() + 1);
+        segmentos.add(segmento);
+        return segmento;
+    }
+
+    private void abrir(long segmento) throws IOException {
+        channel = FileChannel.open(segmento(segmento), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        atual = segmento;
+    }
+
+    private Path segmento(long segmento) {
+        return arquivo.resolveSibling(arquivo.getFileName() + "." + segmento);
+    }
+
+    /** Posição logo após a última quebra de linha do segmento atual, lida de trás para frente. */
+    private long ultimaQuebra() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long fim = channel.size();
+        while (fim > 0) {
+            long inicio = Math.max(0, fim - buffer.capacity());
+            buffer.clear().limit((int) (fim - inicio));
+            while (buffer.hasRemaining() && channel.read(buffer, inicio + buffer.position()) >= 0) {
+                // lê o bloco inteiro
+            }
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return inicio + i + 1;
+                }
+            }
+            fim = inicio;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.TPC.ocean.util;
+
+import java.beans.PropertyDescriptor;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Paginação por cursor (keyset): o cursor opaco carrega os valores da coluna
+ * de ordenação e do id do último registro da página, e a próxima página é
+ * buscada com {@code WHERE (coluna, id) > (?, ?)} em vez de OFFSET.
+ */
+public class KeysetPagination {
+    public static final String PARAM = "after";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static ScrollPosition position(String cursor, Sort sort, Class<?> entityType) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String decoded = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            for (String pair : decoded.split("&")) {
+                int separator = pair.indexOf('=');
+                String property = UriUtils.decode(pair.substring(0, separator), StandardCharsets.UTF_8);
+                String value = UriUtils.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                keys.put(property, convert(value, entityType, property));
+            }
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+        if (!keys.containsKey("id") || sort.stream().anyMatch(order -> !keys.containsKey(order.getProperty()))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor não corresponde à ordenação informada");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    public static <T> PagedModel<EntityModel<T>> toModel(Window<T> window, Function<T, EntityModel<T>> toEntityModel) {
+        ServletUriComponentsBuilder current = ServletUriComponentsBuilder.fromCurrentRequest();
+        Link self = Link.of(current.build().toUriString()).withSelfRel();
+        var content = window.map(toEntityModel).getContent();
+
+        if (!window.hasNext() || window.isEmpty()) {
+            return PagedModel.of(content, (PageMetadata) null, self);
+        }
+        String cursor = encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        Link next = Link.of(current.replaceQueryParam(PARAM, cursor).build().toUriString()).withRel(IanaLinkRelations.NEXT);
+        return PagedModel.of(content, (PageMetadata) null, self, next);
+    }
+
+    static String encode(KeysetScrollPosition position) {
+        StringJoiner joiner = new StringJoiner("&");
+        position.getKeys().forEach((property, value) -> joiner.add(
+            UriUtils.encode(property, StandardCharsets.UTF_8) + "=" + UriUtils.encode(String.valueOf(value), StandardCharsets.UTF_8)
+        ));
+        return ENCODER.encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object convert(String value, Class<?> entityType, String property) {
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(entityType, property);
+        if (descriptor == null) {
+            throw new IllegalArgumentException(property);
+        }
+        Class<?> type = descriptor.getPropertyType();
+        if (type == LocalDate.class) {
+            return LocalDate.parse(value);
+        }
+        return DefaultConversionService.getSharedInstance().convert(value, type);
+    }
+}
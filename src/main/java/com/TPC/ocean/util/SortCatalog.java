@@ -0,0 +1,62 @@
+package com.TPC.ocean.util;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.persistence.Index;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * Catálogo dos campos de ordenação aceitos em cada entidade. Um campo só é
+ * aceito se for a primeira coluna de um índice declarado no {@link Table} da
+ * entidade (ou o id, atendido pela chave primária), então nenhuma listagem
+ * provoca uma ordenação completa da tabela no banco.
+ */
+public class SortCatalog {
+    private static final String CHAVE_PRIMARIA = "PK";
+
+    private static final Map<Class<?>, Map<String, String>> CATALOGO = new ConcurrentHashMap<>();
+
+    /** Campos de ordenação permitidos, cada um mapeado para o nome do índice que o atende. */
+    public static Map<String, String> of(Class<?> entityType) {
+        return CATALOGO.computeIfAbsent(entityType, SortCatalog::build);
+    }
+
+    public static Sort sort(Class<?> entityType, String sort, String direction) {
+        Map<String, String> campos = of(entityType);
+        if (!campos.containsKey(sort)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Campo de ordenação inválido: " + sort + ". Use um de: " + String.join(", ", campos.keySet()));
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction).orElseThrow(
+            () -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Direção de ordenação inválida. Use 'asc' ou 'desc'")
+        );
+        return Sort.by(sortDirection, sort);
+    }
+
+    private static Map<String, String> build(Class<?> entityType) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        campos.put("id", CHAVE_PRIMARIA);
+
+        Table table = entityType.getAnnotation(Table.class);
+        if (table != null) {
+            for (Index index : table.indexes()) {
+                String coluna = index.columnList().split(",")[0].trim().split("\\s+")[0];
+                Field field = ReflectionUtils.findField(entityType, coluna);
+                if (field != null && !field.isAnnotationPresent(ManyToOne.class)) {
+                    campos.putIfAbsent(coluna, index.name());
+                }
+            }
+        }
+        return Collections.unmodifiableMap(campos);
+    }
+}
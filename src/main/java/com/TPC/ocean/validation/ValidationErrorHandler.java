@@ -1,21 +1,32 @@
 package com.TPC.ocean.validation;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 
 import java.util.List;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ProblemDetail;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+
 @RestControllerAdvice
 public class ValidationErrorHandler {
     record ValidationError(String field, String message) {
         public ValidationError(FieldError fieldError) {
             this(fieldError.getField(), fieldError.getDefaultMessage());
         }
+
+        public ValidationError(ConstraintViolation<?> violation) {
+            this(violation.getPropertyPath().toString(), violation.getMessage());
+        }
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -27,4 +38,33 @@ public class ValidationErrorHandler {
                 .map(ValidationError::new)
                 .toList();
     }
+
+    /** Violações dos campos validados um a um, como no PATCH. */
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(BAD_REQUEST)
+    public List<ValidationError> handle(ConstraintViolationException exception) {
+        return exception
+                .getConstraintViolations()
+                .stream()
+                .map(ValidationError::new)
+                .toList();
+    }
+
+    /**
+     * Escrita barrada por uma restrição do banco, por exemplo duas requisições
+     * concorrentes com o mesmo CNPJ que passaram juntas pela verificação prévia.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handle(DataIntegrityViolationException exception) {
+        return ProblemDetail.forStatusAndDetail(CONFLICT, "Registro conflita com dados já cadastrados");
+    }
+
+    /**
+     * Duas escritas sem If-Match sobre a mesma versão: a segunda perde na
+     * verificação de versão do Hibernate em vez de sobrescrever a primeira.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handle(OptimisticLockingFailureException exception) {
+        return ProblemDetail.forStatusAndDetail(CONFLICT, "Registro alterado por outra requisição");
+    }
 }
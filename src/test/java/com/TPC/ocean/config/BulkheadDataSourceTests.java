@@ -0,0 +1,63 @@
+package com.TPC.ocean.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkheadDataSourceTests {
+	DataSource pool = mock(DataSource.class);
+	Connection conexao = mock(Connection.class);
+	BulkheadDataSource bulkhead;
+
+	@BeforeEach
+	void setup() throws SQLException {
+		when(pool.getConnection()).thenReturn(conexao);
+		bulkhead = new BulkheadDataSource(pool, 2, 50);
+	}
+
+	@Test
+	void excedenteEsperaEExpiraSemTocarNoPool() throws SQLException {
+		bulkhead.getConnection();
+		bulkhead.getConnection();
+
+		assertThatThrownBy(bulkhead::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+		verify(pool, times(2)).getConnection();
+	}
+
+	@Test
+	void fecharDevolveAPermissaoUmaVez() throws SQLException {
+		Connection primeira = bulkhead.getConnection();
+		primeira.close();
+		primeira.close();
+
+		assertThat(bulkhead.getDisponiveis()).isEqualTo(2);
+		verify(conexao, times(1)).close();
+	}
+
+	@Test
+	void falhaDoPoolDevolveAPermissao() throws SQLException {
+		when(pool.getConnection()).thenThrow(new SQLException("pool indisponível"));
+
+		assertThatThrownBy(bulkhead::getConnection).hasMessage("pool indisponível");
+		assertThat(bulkhead.getDisponiveis()).isEqualTo(2);
+	}
+
+	@Test
+	void demaisMetodosVaoParaAConexaoReal() throws SQLException {
+		when(conexao.getAutoCommit()).thenReturn(true);
+
+		assertThat(bulkhead.getConnection().getAutoCommit()).isTrue();
+	}
+}
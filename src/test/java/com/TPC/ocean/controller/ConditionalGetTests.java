@@ -0,0 +1,141 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.repository.ContratoRepository;
+import com.TPC.ocean.repository.EmpresaRepository;
+
+@SpringBootTest(properties = "ocean.cache.specs.servicos=maximumSize=1000,expireAfterWrite=1s")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTests {
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EmpresaRepository empresas;
+
+	@Autowired
+	ContratoRepository contratos;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Test
+	void itemRespondeNotModifiedAteSerAlterado() throws Exception {
+		Empresa empresa = empresas.save(novaEmpresa("22.222.222/0001-22"));
+		String uri = "/empresas/" + empresa.getId();
+
+		String etag = etag(uri);
+		assertThat(etag).doesNotStartWith("W/");
+		mvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified())
+			.andExpect(content().string(""));
+
+		atualizar(empresa);
+		mvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+	}
+
+	@Test
+	void leituraAnteriorAEscritaNaoVoltaParaOCache() throws Exception {
+		Empresa empresa = empresas.save(novaEmpresa("45.454.545/0001-45"));
+		Empresa lidaAntes = empresas.findById(empresa.getId()).orElseThrow();
+
+		atualizar(empresa);
+		CaffeineCache cache = (CaffeineCache) cacheManager.getCache("empresas-por-id");
+		cache.put(empresa.getId(), lidaAntes);
+		assertThat(cache.getNativeCache().asMap()).doesNotContainKey(empresa.getId());
+
+		mvc.perform(get("/empresas/" + empresa.getId()))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("Empresa Alterada")));
+	}
+
+	@Test
+	void paginaRespondeNotModifiedAteUmaEscrita() throws Exception {
+		Empresa empresa = empresas.save(novaEmpresa("33.333.333/0001-33"));
+
+		String etag = etag("/empresas?size=5");
+		assertThat(etag).startsWith("W/");
+		mvc.perform(get("/empresas?size=5").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		atualizar(empresa);
+		mvc.perform(get("/empresas?size=5").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+	}
+
+	@Test
+	void etagDaPaginaExpiraComOCacheMesmoSemEscritaLocal() throws Exception {
+		String etag = etag("/servicos?size=5");
+		mvc.perform(get("/servicos?size=5").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		Thread.sleep(1100);
+		mvc.perform(get("/servicos?size=5").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+	}
+
+	@Test
+	void escritaNaEmpresaInvalidaSoOsDependentesDela() throws Exception {
+		Empresa empresa = empresas.save(novaEmpresa("23.232.323/0001-23"));
+		Empresa outra = empresas.save(novaEmpresa("34.343.434/0001-34"));
+		Contrato contrato = contratos.save(novoContrato(empresa));
+		Contrato alheio = contratos.save(novoContrato(outra));
+		String uri = "/contratos/" + contrato.getId();
+
+		String etag = etag(uri);
+		etag("/contratos/" + alheio.getId());
+
+		atualizar(empresa);
+		assertThat(cacheManager.getCache("contratos-por-id").get(alheio.getId())).isNotNull();
+		String atual = mvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andExpect(content().string(containsString("Empresa Alterada")))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(atual).isNotEqualTo(etag);
+	}
+
+	private String etag(String uri) throws Exception {
+		return mvc.perform(get(uri))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private void atualizar(Empresa empresa) throws Exception {
+		mvc.perform(put("/empresas/" + empresa.getId()).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"nome\":\"Empresa Alterada\",\"cnpj\":\"" + empresa.getCnpj()
+					+ "\",\"email\":\"alterada@ocean.com\",\"telefone\":\"11999999999\",\"endereco\":\"Rua Nova\"}"))
+			.andExpect(status().isOk());
+	}
+
+	private static Contrato novoContrato(Empresa empresa) {
+		return Contrato.builder()
+			.empresa(empresa).tipoContrato("patrocinio").dataInicio(LocalDate.of(2024, 1, 1))
+			.dataFim(LocalDate.of(2025, 1, 1)).valor(1000.0).status("ativo").assinaturaPendente("0").build();
+	}
+
+	private static Empresa novaEmpresa(String cnpj) {
+		return Empresa.builder()
+			.nome("Empresa ETag").cnpj(cnpj).email("etag@ocean.com")
+			.telefone("11999999999").endereco("Rua da ETag").build();
+	}
+}
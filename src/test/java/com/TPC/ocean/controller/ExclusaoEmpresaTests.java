@@ -0,0 +1,144 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.Exibicao;
+import com.TPC.ocean.model.Servico;
+import com.TPC.ocean.model.TermosCondicoes;
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.model.Usuario;
+import com.TPC.ocean.repository.ContratoRepository;
+import com.TPC.ocean.repository.EmpresaRepository;
+import com.TPC.ocean.repository.ExibicaoRepository;
+import com.TPC.ocean.repository.ServicoRepository;
+import com.TPC.ocean.repository.TermosCondicoesRepository;
+import com.TPC.ocean.repository.TransacaoRepository;
+import com.TPC.ocean.repository.UsuarioRepository;
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(properties = "ocean.exclusao.lote=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExclusaoEmpresaTests {
+	private static final LocalDate DIA = LocalDate.of(2024, 3, 1);
+	private static final AtomicInteger SEQUENCIA = new AtomicInteger();
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EmpresaRepository empresas;
+
+	@Autowired
+	ContratoRepository contratos;
+
+	@Autowired
+	TransacaoRepository transacoes;
+
+	@Autowired
+	ExibicaoRepository exibicoes;
+
+	@Autowired
+	ServicoRepository servicos;
+
+	@Autowired
+	UsuarioRepository usuarios;
+
+	@Autowired
+	TermosCondicoesRepository termosCondicoes;
+
+	@Test
+	void excluiOGrafoDaEmpresaEmLotes() throws Exception {
+		Empresa empresa = popular();
+		Empresa outra = popular();
+		long transacoesAntes = transacoes.count();
+
+		String status = mvc.perform(delete("/empresas/" + empresa.getId()).param("cascade", "true"))
+			.andExpect(status().isAccepted())
+			.andExpect(header().exists(HttpHeaders.LOCATION))
+			.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+		String corpo = aguardarConclusao(status);
+		assertThat(JsonPath.<Integer>read(corpo, "$.removidos.exibicoes")).isEqualTo(6);
+		assertThat(JsonPath.<Integer>read(corpo, "$.removidos.transacoes")).isEqualTo(6);
+		assertThat(JsonPath.<Integer>read(corpo, "$.removidos.contratos")).isEqualTo(2);
+		assertThat(JsonPath.<Integer>read(corpo, "$.removidos.servicos")).isEqualTo(3);
+		assertThat(JsonPath.<Integer>read(corpo, "$.removidos.termosCondicoes")).isEqualTo(1);
+		assertThat(JsonPath.<Integer>read(corpo, "$.removidos.usuarios")).isEqualTo(1);
+		assertThat(JsonPath.<Integer>read(corpo, "$.removidos.empresas")).isEqualTo(1);
+
+		mvc.perform(get("/empresas/" + empresa.getId())).andExpect(status().isNotFound());
+		mvc.perform(get("/empresas/" + outra.getId())).andExpect(status().isOk());
+		assertThat(transacoes.count()).isEqualTo(transacoesAntes - 6);
+	}
+
+	@Test
+	void exclusaoSimplesComDependentesContinuaRecusada() throws Exception {
+		Empresa empresa = popular();
+
+		mvc.perform(delete("/empresas/" + empresa.getId())).andExpect(status().isConflict());
+		mvc.perform(get("/empresas/" + empresa.getId())).andExpect(status().isOk());
+	}
+
+	@Test
+	void empresaInexistenteOuTicketDesconhecido() throws Exception {
+		mvc.perform(delete("/empresas/" + Long.MAX_VALUE).param("cascade", "true")).andExpect(status().isNotFound());
+		mvc.perform(get("/empresas/exclusoes/desconhecido")).andExpect(status().isNotFound());
+	}
+
+	private String aguardarConclusao(String status) throws Exception {
+		for (int tentativa = 0; tentativa < 200; tentativa++) {
+			String corpo = mvc.perform(get(status)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+			String estado = JsonPath.read(corpo, "$.estado");
+			if (!"PENDENTE".equals(estado) && !"EXECUTANDO".equals(estado)) {
+				assertThat(estado).isEqualTo("CONCLUIDA");
+				return corpo;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Exclusão não concluída: " + status);
+	}
+
+	/** Empresa com 2 contratos, 3 transações e 3 exibições por contrato, 3 serviços e um usuário com termos. */
+	private Empresa popular() {
+		int n = SEQUENCIA.incrementAndGet();
+		Empresa empresa = empresas.save(Empresa.builder()
+			.nome("Empresa Cascata " + n).cnpj("88.%03d.000/0001-00".formatted(n)).email("cascata@ocean.com")
+			.telefone("11999999999").endereco("Rua da Cascata").build());
+		for (int c = 0; c < 2; c++) {
+			Contrato contrato = contratos.save(Contrato.builder()
+				.empresa(empresa).tipoContrato("patrocinio").dataInicio(DIA).dataFim(DIA.plusYears(1))
+				.valor(1000.0).status("ativo").assinaturaPendente("0").build());
+			for (int t = 0; t < 3; t++) {
+				Transacao transacao = transacoes.save(Transacao.builder()
+					.contrato(contrato).data(DIA).valor(100.0).descricao("Pagamento em cascata").build());
+				exibicoes.save(Exibicao.builder()
+					.transacao(transacao).valor(10.0).dataExibicao(DIA).descricao("Exibição em cascata").build());
+			}
+		}
+		for (int s = 0; s < 3; s++) {
+			servicos.save(Servico.builder().empresa(empresa).dataServico(DIA).descricao("Limpeza").status("ativo").build());
+		}
+		Usuario usuario = usuarios.save(Usuario.builder()
+			.nome("Usuário Cascata").email("cascata" + n + "@ocean.com").senha("senha1234").tipo("empresa").empresa(empresa).build());
+		termosCondicoes.save(TermosCondicoes.builder().usuario(usuario).aceitou("1").dataAceite(DIA).build());
+		return empresa;
+	}
+}
@@ -0,0 +1,181 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.Servico;
+import com.TPC.ocean.model.Usuario;
+import com.TPC.ocean.repository.ContratoRepository;
+import com.TPC.ocean.repository.EmpresaRepository;
+import com.TPC.ocean.repository.ServicoRepository;
+import com.TPC.ocean.repository.UsuarioRepository;
+import com.TPC.ocean.service.MergePatchService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IfMatchTests {
+	private static int sequencia;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	EmpresaRepository empresas;
+
+	@Autowired
+	ServicoRepository servicos;
+
+	@Autowired
+	UsuarioRepository usuarios;
+
+	@Autowired
+	ContratoRepository contratos;
+
+	private Empresa empresa;
+	private Servico servico;
+
+	@BeforeEach
+	void popular() {
+		empresa = empresas.save(Empresa.builder()
+			.nome("Empresa If-Match").cnpj("77.%03d.000/0001-00".formatted(++sequencia))
+			.email("ifmatch@ocean.com").telefone("11999999999").endereco("Rua da Versão").build());
+		servico = servicos.save(Servico.builder()
+			.empresa(empresa).dataServico(LocalDate.of(2024, 5, 1)).descricao("Limpeza de praia").status("ativo").build());
+	}
+
+	@Test
+	void putComETagAtualUsaSoOUpdate() throws Exception {
+		String etag = etag("/servicos/" + servico.getId());
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mvc.perform(put("/servicos/" + servico.getId()).header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON).content(corpo("Coleta de redes")))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.versao").value(servico.getVersao() + 1));
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		mvc.perform(get("/servicos/" + servico.getId())).andExpect(jsonPath("$.descricao").value("Coleta de redes"));
+	}
+
+	@Test
+	void escritasComETagAntigaRetornam412() throws Exception {
+		String etag = etag("/servicos/" + servico.getId());
+		mvc.perform(put("/servicos/" + servico.getId()).header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON).content(corpo("Primeira")))
+			.andExpect(status().isOk());
+
+		mvc.perform(put("/servicos/" + servico.getId()).header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON).content(corpo("Segunda")))
+			.andExpect(status().isPreconditionFailed());
+		mvc.perform(patch("/servicos/" + servico.getId()).header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MergePatchService.MEDIA_TYPE).content("{\"status\":\"inativo\"}"))
+			.andExpect(status().isPreconditionFailed());
+		mvc.perform(delete("/servicos/" + servico.getId()).header(HttpHeaders.IF_MATCH, etag))
+			.andExpect(status().isPreconditionFailed());
+		mvc.perform(delete("/servicos/" + servico.getId()).header(HttpHeaders.IF_MATCH, "W/" + etag))
+			.andExpect(status().isPreconditionFailed());
+
+		assertThat(servicos.findById(servico.getId()).orElseThrow().getDescricao()).isEqualTo("Primeira");
+	}
+
+	@Test
+	void deleteComETagAtualRemove() throws Exception {
+		mvc.perform(delete("/servicos/" + servico.getId()).header(HttpHeaders.IF_MATCH, etag("/servicos/" + servico.getId())))
+			.andExpect(status().isNoContent());
+		assertThat(servicos.findById(servico.getId())).isEmpty();
+	}
+
+	@Test
+	void transacaoComETagAntigaNaoAlteraOResumo() throws Exception {
+		Contrato contrato = contratos.save(Contrato.builder()
+			.empresa(empresa).tipoContrato("patrocinio").dataInicio(LocalDate.of(2024, 5, 1)).dataFim(LocalDate.of(2025, 5, 1))
+			.valor(1000.0).status("ativo").assinaturaPendente("0").build());
+		String uri = mvc.perform(post("/transacoes").contentType(MediaType.APPLICATION_JSON).content(transacao(contrato, 10.0)))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+		String etag = etag(uri);
+
+		mvc.perform(put(uri).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).content(transacao(contrato, 25.0)))
+			.andExpect(status().isOk());
+		mvc.perform(put(uri).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).content(transacao(contrato, 99.0)))
+			.andExpect(status().isPreconditionFailed());
+		mvc.perform(delete(uri).header(HttpHeaders.IF_MATCH, etag)).andExpect(status().isPreconditionFailed());
+		mvc.perform(get("/resumos-financeiros/empresas/" + empresa.getId()))
+			.andExpect(jsonPath("$.quantidade").value(1))
+			.andExpect(jsonPath("$.soma").value(25.0));
+
+		mvc.perform(delete(uri).header(HttpHeaders.IF_MATCH, etag(uri))).andExpect(status().isNoContent());
+		mvc.perform(get("/resumos-financeiros/empresas/" + empresa.getId()))
+			.andExpect(jsonPath("$.quantidade").value(0))
+			.andExpect(jsonPath("$.soma").value(0.0));
+	}
+
+	@Test
+	void registroInexistenteContinuaRetornando404() throws Exception {
+		mvc.perform(put("/servicos/" + Long.MAX_VALUE).header(HttpHeaders.IF_MATCH, "\"0\"")
+				.contentType(MediaType.APPLICATION_JSON).content(corpo("Nada")))
+			.andExpect(status().isNotFound());
+		mvc.perform(delete("/servicos/" + Long.MAX_VALUE).header(HttpHeaders.IF_MATCH, "\"0\""))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void putCondicionalLimpaAssociacoesAusentes() throws Exception {
+		Usuario usuario = usuarios.save(Usuario.builder()
+			.nome("Usuário If-Match").email("usuario.ifmatch" + sequencia + "@ocean.com").senha("senha1234").tipo("empresa")
+			.empresa(empresa).build());
+
+		mvc.perform(put("/usuarios/" + usuario.getId()).header(HttpHeaders.IF_MATCH, etag("/usuarios/" + usuario.getId()))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"nome\":\"Renomeado\",\"email\":\"" + usuario.getEmail() + "\",\"senha\":\"senha1234\",\"tipo\":\"empresa\",\"empresa\":null}"))
+			.andExpect(status().isOk());
+
+		Usuario atualizado = usuarios.findById(usuario.getId()).orElseThrow();
+		assertThat(atualizado.getNome()).isEqualTo("Renomeado");
+		assertThat(atualizado.getEmpresa()).isNull();
+	}
+
+	private String etag(String uri) throws Exception {
+		return mvc.perform(get(uri)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private static String transacao(Contrato contrato, double valor) {
+		return "{\"contrato\":{\"id\":" + contrato.getId() + "},\"data\":\"2024-05-02\",\"valor\":" + valor
+			+ ",\"descricao\":\"Pagamento If-Match\"}";
+	}
+
+	private String corpo(String descricao) {
+		return """
+			{"empresa":{"id":%d},"dataServico":"2024-05-01","descricao":"%s","status":"ativo"}"""
+			.formatted(empresa.getId(), descricao);
+	}
+}
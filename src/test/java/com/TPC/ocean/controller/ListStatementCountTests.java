@@ -0,0 +1,186 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.Exibicao;
+import com.TPC.ocean.model.Instituicao;
+import com.TPC.ocean.model.PessoaFisica;
+import com.TPC.ocean.model.Servico;
+import com.TPC.ocean.model.TermosCondicoes;
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.model.Usuario;
+import com.TPC.ocean.repository.ContratoRepository;
+import com.TPC.ocean.repository.EmpresaRepository;
+import com.TPC.ocean.repository.ExibicaoRepository;
+import com.TPC.ocean.repository.InstituicaoRepository;
+import com.TPC.ocean.repository.PessoaFisicaRepository;
+import com.TPC.ocean.repository.ServicoRepository;
+import com.TPC.ocean.repository.TermosCondicoesRepository;
+import com.TPC.ocean.repository.TransacaoRepository;
+import com.TPC.ocean.repository.UsuarioRepository;
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ListStatementCountTests {
+	private static final int REGISTROS = 25;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	CacheManager cacheManager;
+
+	@Autowired
+	EmpresaRepository empresas;
+
+	@Autowired
+	InstituicaoRepository instituicoes;
+
+	@Autowired
+	PessoaFisicaRepository pessoasFisicas;
+
+	@Autowired
+	UsuarioRepository usuarios;
+
+	@Autowired
+	TermosCondicoesRepository termosCondicoes;
+
+	@Autowired
+	ContratoRepository contratos;
+
+	@Autowired
+	ServicoRepository servicos;
+
+	@Autowired
+	TransacaoRepository transacoes;
+
+	@Autowired
+	ExibicaoRepository exibicoes;
+
+	@BeforeEach
+	void popular() {
+		if (exibicoes.count() == 0) {
+			for (int i = 0; i < REGISTROS; i++) {
+				popularGrafo(i);
+			}
+		}
+		cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/empresas", "/instituicoes", "/pessoas-fisicas", "/usuarios", "/termos-condicoes",
+		"/contratos", "/servicos", "/transacoes", "/exibicoes"
+	})
+	void paginaUsaNoMaximoDuasInstrucoes(String path) throws Exception {
+		assertThat(instrucoes(path + "?size=10&page=1")).isLessThanOrEqualTo(2);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/empresas", "/instituicoes", "/pessoas-fisicas", "/usuarios", "/termos-condicoes",
+		"/contratos", "/servicos", "/transacoes", "/exibicoes"
+	})
+	void paginaComCamposSelecionadosUsaNoMaximoDuasInstrucoes(String path) throws Exception {
+		assertThat(instrucoes(path + "?size=10&page=1&fields=id,versao")).isLessThanOrEqualTo(2);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/contratos?status=ativo&valorMin=1005&dataFimDe=2000-01-01",
+		"/servicos?status=ativo&dataServicoAte=2999-12-31",
+		"/transacoes?valorMin=105&valorMax=120&page=1",
+		"/transacoes?dataDe=2000-01-01&withTotal=false&page=1",
+		"/transacoes?valorMin=105&after="
+	})
+	void paginaFiltradaUsaNoMaximoDuasInstrucoes(String uri) throws Exception {
+		assertThat(instrucoes(uri + "&size=5")).isLessThanOrEqualTo(2);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/contratos?status=ativo&valorMin=1005&dataFimDe=2000-01-01",
+		"/contratos?tipoContrato=patrocinio&valorMax=1010",
+		"/transacoes?valorMin=105&valorMax=120"
+	})
+	void camposSelecionadosRespeitamOsFiltros(String uri) throws Exception {
+		String completa = mvc.perform(get(uri + "&size=5")).andReturn().getResponse().getContentAsString();
+		String campos = mvc.perform(get(uri + "&size=5&fields=id")).andReturn().getResponse().getContentAsString();
+
+		assertThat(JsonPath.<Integer>read(campos, "$.page.totalElements")).isEqualTo(JsonPath.read(completa, "$.page.totalElements"));
+		assertThat(JsonPath.<Integer>read(campos, "$.page.totalElements")).isLessThan(REGISTROS);
+		assertThat(JsonPath.<List<Integer>>read(campos, "$._embedded.*[*].id")).isEqualTo(JsonPath.read(completa, "$._embedded.*[*].id"));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "/transacoes", "/exibicoes" })
+	void paginaPorCursorUsaUmaInstrucao(String path) throws Exception {
+		assertThat(instrucoes(path + "?size=10&after=")).isEqualTo(1);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "/transacoes", "/exibicoes" })
+	void paginaSemTotalNaoExecutaCount(String path) throws Exception {
+		assertThat(instrucoes(path + "?size=10&page=1&withTotal=false")).isEqualTo(1);
+	}
+
+	private long instrucoes(String uri) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mvc.perform(get(uri)).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void popularGrafo(int i) {
+		String sufixo = String.format("%02d", i);
+		LocalDate hoje = LocalDate.now();
+
+		Empresa empresa = empresas.save(Empresa.builder()
+			.nome("Empresa " + i).cnpj("12.345.678/00" + sufixo + "-00").email("empresa" + i + "@ocean.com")
+			.telefone("11999999999").endereco("Rua " + i).build());
+		Instituicao instituicao = instituicoes.save(Instituicao.builder()
+			.nome("Instituição " + i).cnpj("98.765.432/00" + sufixo + "-00").email("inst" + i + "@ocean.com")
+			.telefone("11888888888").endereco("Avenida " + i).build());
+		PessoaFisica pessoaFisica = pessoasFisicas.save(PessoaFisica.builder()
+			.nome("Pessoa " + i).cpf("123.456.789-" + sufixo).email("pessoa" + i + "@ocean.com")
+			.senha("senha1234").build());
+		Usuario usuario = usuarios.save(Usuario.builder()
+			.nome("Usuário " + i).email("usuario" + i + "@ocean.com").senha("senha1234").tipo("empresa")
+			.empresa(empresa).instituicao(instituicao).pessoaFisica(pessoaFisica).build());
+		termosCondicoes.save(TermosCondicoes.builder().usuario(usuario).aceitou("1").dataAceite(hoje).build());
+		servicos.save(Servico.builder().empresa(empresa).dataServico(hoje).descricao("Limpeza de praia").status("ativo").build());
+		Contrato contrato = contratos.save(Contrato.builder()
+			.empresa(empresa).tipoContrato("patrocinio").dataInicio(hoje).dataFim(hoje.plusYears(1))
+			.valor(1000.0 + i).status("ativo").assinaturaPendente("0").build());
+		Transacao transacao = transacoes.save(Transacao.builder()
+			.contrato(contrato).data(hoje).valor(100.0 + i).descricao("Pagamento " + i).build());
+		exibicoes.save(Exibicao.builder()
+			.transacao(transacao).valor(10.0 + i).dataExibicao(hoje).descricao("Exibição " + i).build());
+	}
+}
@@ -0,0 +1,127 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.repository.ContratoRepository;
+import com.TPC.ocean.repository.EmpresaRepository;
+import com.TPC.ocean.service.MergePatchService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MergePatchTests {
+	private static int sequencia;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	EmpresaRepository empresas;
+
+	@Autowired
+	ContratoRepository contratos;
+
+	private Empresa empresa;
+	private Contrato contrato;
+
+	@BeforeEach
+	void popular() {
+		empresa = novaEmpresa();
+		contrato = contratos.save(Contrato.builder()
+			.empresa(empresa).tipoContrato("patrocinio").dataInicio(LocalDate.of(2024, 1, 1)).dataFim(LocalDate.of(2025, 1, 1))
+			.valor(1000.0).status("ativo").assinaturaPendente("0").build());
+	}
+
+	@Test
+	void alteraSoOsCamposInformados() throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		mvc.perform(mergePatch(contrato, "{\"status\":\"encerrado\"}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.status").value("encerrado"))
+			.andExpect(jsonPath("$.tipoContrato").value("patrocinio"))
+			.andExpect(jsonPath("$.valor").value(1000.0))
+			.andExpect(jsonPath("$.versao").value(contrato.getVersao() + 1));
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(contratos.findById(contrato.getId()).orElseThrow().getStatus()).isEqualTo("encerrado");
+	}
+
+	@Test
+	void trocaAssociacaoPorId() throws Exception {
+		Empresa outra = novaEmpresa();
+
+		mvc.perform(mergePatch(contrato, "{\"empresa\":{\"id\":" + outra.getId() + "},\"dataFim\":\"2026-01-01\"}"))
+			.andExpect(status().isOk());
+
+		Contrato atualizado = contratos.findById(contrato.getId()).orElseThrow();
+		assertThat(atualizado.getEmpresa().getId()).isEqualTo(outra.getId());
+		assertThat(atualizado.getDataFim()).isEqualTo(LocalDate.of(2026, 1, 1));
+	}
+
+	@Test
+	void validaApenasOsCamposPresentes() throws Exception {
+		mvc.perform(mergePatch(contrato, "{\"status\":\"\",\"valor\":null}"))
+			.andExpect(status().isBadRequest())
+			.andExpect(jsonPath("$[*].field").value(containsInAnyOrder("status", "valor")));
+
+		assertThat(contratos.findById(contrato.getId()).orElseThrow().getStatus()).isEqualTo("ativo");
+	}
+
+	@Test
+	void recusaCamposDesconhecidosOuImutaveis() throws Exception {
+		mvc.perform(mergePatch(contrato, "{\"inexistente\":1}")).andExpect(status().isBadRequest());
+		mvc.perform(mergePatch(contrato, "{\"versao\":99}")).andExpect(status().isBadRequest());
+		mvc.perform(mergePatch(contrato, "{\"valor\":\"muito\"}")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exigeMediaTypeDeMergePatch() throws Exception {
+		mvc.perform(mergePatch(contrato, "{\"status\":\"encerrado\"}").contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isUnsupportedMediaType());
+	}
+
+	@Test
+	void registroInexistenteRetorna404() throws Exception {
+		mvc.perform(patch("/contratos/{id}", Long.MAX_VALUE).contentType(MergePatchService.MEDIA_TYPE).content("{\"status\":\"x\"}"))
+			.andExpect(status().isNotFound());
+	}
+
+	private static MockHttpServletRequestBuilder mergePatch(Contrato contrato, String corpo) {
+		return patch("/contratos/{id}", contrato.getId())
+			.contentType(MergePatchService.MEDIA_TYPE)
+			.content(corpo);
+	}
+
+	private Empresa novaEmpresa() {
+		return empresas.save(Empresa.builder()
+			.nome("Empresa Patch").cnpj("66.%03d.000/0001-00".formatted(++sequencia))
+			.email("patch@ocean.com").telefone("11999999999").endereco("Rua do Patch").build());
+	}
+}
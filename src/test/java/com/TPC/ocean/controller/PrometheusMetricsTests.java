@@ -0,0 +1,37 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class PrometheusMetricsTests {
+	@Autowired
+	MockMvc mvc;
+
+	@Test
+	void expoeTimersPorMetodoHibernateEPool() throws Exception {
+		mvc.perform(get("/contratos")).andExpect(status().isOk());
+
+		String metricas = mvc.perform(get("/actuator/prometheus"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+
+		assertThat(metricas)
+			.containsPattern("http_server_requests_seconds_count\\{action=\"index\",controller=\"ContratoController\",[^}]*uri=\"/contratos\"")
+			.contains("hibernate_query_executions_total", "hibernate_entities_loads_total", "hibernate_cache_query_plan_total")
+			.containsPattern("cache_gets_total\\{cache=\"contratos\"")
+			.contains("hikaricp_connections_active", "hikaricp_connections_pending", "hikaricp_connections_acquire_seconds");
+	}
+}
@@ -0,0 +1,210 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jayway.jsonpath.JsonPath;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.ResumoFinanceiro;
+import com.TPC.ocean.model.ResumoFinanceiro.Nivel;
+import com.TPC.ocean.model.TotalTransacoes;
+import com.TPC.ocean.repository.ContratoRepository;
+import com.TPC.ocean.repository.EmpresaRepository;
+import com.TPC.ocean.repository.ResumoFinanceiroRepository;
+import com.TPC.ocean.repository.TransacaoRepository;
+import com.TPC.ocean.service.MergePatchService;
+import com.TPC.ocean.service.ResumoFinanceiroService;
+import com.TPC.ocean.service.ResumoFinanceiroService.Movimento;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResumoFinanceiroTests {
+	private static final LocalDate DIA = LocalDate.of(2024, 3, 1);
+	private static int sequencia;
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EmpresaRepository empresas;
+
+	@Autowired
+	ContratoRepository contratos;
+
+	@Autowired
+	TransacaoRepository transacoes;
+
+	@Autowired
+	ResumoFinanceiroRepository resumos;
+
+	@Autowired
+	ResumoFinanceiroService service;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Test
+	void resumoAcompanhaEscritasEReconstrucao() throws Exception {
+		Empresa empresa = empresas.save(Empresa.builder()
+			.nome("Empresa Resumo").cnpj("11.111.111/0001-11").email("resumo@ocean.com")
+			.telefone("11999999999").endereco("Rua do Resumo").build());
+		Contrato contrato = contratos.save(Contrato.builder()
+			.empresa(empresa).tipoContrato("patrocinio").dataInicio(DIA).dataFim(DIA.plusYears(1))
+			.valor(1000.0).status("ativo").assinaturaPendente("0").build());
+
+		String primeira = criar(contrato, DIA, 10.0);
+		String segunda = criar(contrato, DIA, 5.0);
+		mvc.perform(post("/transacoes/lote").contentType(MediaType.APPLICATION_JSON).content("{\"transacoes\":["
+				+ transacao(contrato, DIA.plusDays(1), 1.0) + "," + transacao(contrato, DIA.plusDays(1), 1.0) + "]}"))
+			.andExpect(status().isCreated());
+		mvc.perform(put(primeira).contentType(MediaType.APPLICATION_JSON).content(transacao(contrato, DIA.plusDays(1), 20.0)))
+			.andExpect(status().isOk());
+		mvc.perform(delete(segunda)).andExpect(status().isNoContent());
+
+		mvc.perform(get("/resumos-financeiros/empresas/" + empresa.getId()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.quantidade").value(3))
+			.andExpect(jsonPath("$.soma").value(22.0));
+		mvc.perform(get("/resumos-financeiros/empresas/" + empresa.getId() + "/dias")
+				.param("de", DIA.toString()).param("ate", DIA.plusDays(1).toString()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].quantidade").value(0))
+			.andExpect(jsonPath("$[1].quantidade").value(3))
+			.andExpect(jsonPath("$[1].soma").value(22.0));
+		assertConsistente(empresa);
+
+		assertThat(service.agendarReconstrucao()).isTrue();
+		while (service.isEmReconstrucao()) {
+			Thread.sleep(10);
+		}
+		assertConsistente(empresa);
+	}
+
+	@Test
+	void primeirasEscritasConcorrentesDaMesmaChave() throws Exception {
+		Empresa empresa = novaEmpresa();
+		Contrato primeiro = novoContrato(empresa);
+		Contrato segundo = novoContrato(empresa);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		CountDownLatch aplicado = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> primeira = executor.submit(() -> transaction.executeWithoutResult(status -> {
+				service.aplicar(List.of(new Movimento(primeiro.getId(), DIA, 1, 10.0)));
+				aplicado.countDown();
+				try {
+					Thread.sleep(300);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			aplicado.await();
+			// as linhas da empresa e do dia ainda não foram confirmadas pela primeira
+			transaction.executeWithoutResult(status -> service.aplicar(List.of(new Movimento(segundo.getId(), DIA, 1, 5.0))));
+			primeira.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		for (String chave : List.of(ResumoFinanceiro.chave(Nivel.EMPRESA, empresa.getId(), null, null),
+				ResumoFinanceiro.chave(Nivel.EMPRESA_DIA, empresa.getId(), null, DIA))) {
+			ResumoFinanceiro resumo = resumos.findByChave(chave).orElseThrow();
+			assertThat(resumo.getQuantidade()).isEqualTo(2);
+			assertThat(resumo.getSoma()).isEqualTo(15.0);
+		}
+	}
+
+	@Test
+	void trocaDeEmpresaLevaOsTotaisDoContrato() throws Exception {
+		Empresa origem = novaEmpresa();
+		Empresa destino = novaEmpresa();
+		Contrato contrato = novoContrato(origem);
+		criar(contrato, DIA, 10.0);
+		criar(contrato, DIA.plusDays(1), 5.0);
+		criar(novoContrato(destino), DIA, 1.0);
+
+		mvc.perform(put("/contratos/" + contrato.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+				{"empresa":{"id":%d},"tipoContrato":"patrocinio","dataInicio":"%s","dataFim":"%s","valor":1000.0,"status":"ativo","assinaturaPendente":"0"}"""
+				.formatted(destino.getId(), DIA, DIA.plusYears(1))))
+			.andExpect(status().isOk());
+
+		assertConsistente(destino);
+		assertThat(resumos.findByChave(ResumoFinanceiro.chave(Nivel.EMPRESA, origem.getId(), null, null)).orElseThrow().getQuantidade())
+			.isZero();
+		assertThat(resumos.findByChave(ResumoFinanceiro.chave(Nivel.EMPRESA_DIA, destino.getId(), null, DIA)).orElseThrow().getSoma())
+			.isEqualTo(11.0);
+		assertThat(resumos.findByChave(ResumoFinanceiro.chave(Nivel.CONTRATO, null, contrato.getId(), null)).orElseThrow().getEmpresaId())
+			.isEqualTo(destino.getId());
+
+		mvc.perform(patch("/contratos/" + contrato.getId()).contentType(MergePatchService.MEDIA_TYPE)
+				.content("{\"empresa\":{\"id\":" + origem.getId() + "}}"))
+			.andExpect(status().isOk());
+
+		assertConsistente(origem);
+		assertConsistente(destino);
+		assertThat(resumos.findByChave(ResumoFinanceiro.chave(Nivel.EMPRESA_DIA, destino.getId(), null, DIA.plusDays(1))).orElseThrow().getQuantidade())
+			.isZero();
+	}
+
+	private Empresa novaEmpresa() {
+		return empresas.save(Empresa.builder()
+			.nome("Empresa Resumo").cnpj("44.%03d.000/0001-00".formatted(++sequencia)).email("resumo@ocean.com")
+			.telefone("11999999999").endereco("Rua do Resumo").build());
+	}
+
+	private Contrato novoContrato(Empresa empresa) {
+		return contratos.save(Contrato.builder()
+			.empresa(empresa).tipoContrato("patrocinio").dataInicio(DIA).dataFim(DIA.plusYears(1))
+			.valor(1000.0).status("ativo").assinaturaPendente("0").build());
+	}
+
+	private void assertConsistente(Empresa empresa) {
+		TotalTransacoes esperado = transacoes.totaisPorEmpresa(null, null).stream()
+			.filter(total -> total.id().equals(empresa.getId()))
+			.findFirst().orElseThrow();
+		ResumoFinanceiro resumo = resumos.findByChave(ResumoFinanceiro.chave(Nivel.EMPRESA, empresa.getId(), null, null))
+			.orElseThrow();
+
+		assertThat(resumo.getQuantidade()).isEqualTo(esperado.quantidade());
+		assertThat(resumo.getSoma()).isEqualTo(esperado.soma());
+	}
+
+	private String criar(Contrato contrato, LocalDate data, double valor) throws Exception {
+		String corpo = mvc.perform(post("/transacoes").contentType(MediaType.APPLICATION_JSON).content(transacao(contrato, data, valor)))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		return "/transacoes/" + JsonPath.read(corpo, "$.id");
+	}
+
+	private static String transacao(Contrato contrato, LocalDate data, double valor) {
+		return "{\"contrato\":{\"id\":" + contrato.getId() + "},\"data\":\"" + data + "\",\"valor\":" + valor
+			+ ",\"descricao\":\"Pagamento\"}";
+	}
+}
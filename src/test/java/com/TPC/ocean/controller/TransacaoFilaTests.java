@@ -0,0 +1,151 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import com.TPC.ocean.model.Contrato;
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.IngestaoTransacao;
+import com.TPC.ocean.repository.ContratoRepository;
+import com.TPC.ocean.repository.EmpresaRepository;
+import com.TPC.ocean.repository.IngestaoTransacaoRepository;
+import com.TPC.ocean.service.TransacaoFilaService;
+import com.TPC.ocean.service.TransacaoIngestService;
+
+@SpringBootTest(properties = "ocean.ingestao.capacidade=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransacaoFilaTests {
+	private static final LocalDate DIA = LocalDate.of(2024, 4, 1);
+	private static final AtomicInteger EMPRESAS = new AtomicInteger();
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EmpresaRepository empresas;
+
+	@Autowired
+	ContratoRepository contratos;
+
+	@Autowired
+	TransacaoFilaService filaService;
+
+	@Autowired
+	TransacaoIngestService ingestService;
+
+	@Autowired
+	IngestaoTransacaoRepository ingestoes;
+
+	Contrato contrato;
+
+	@BeforeEach
+	void setup() {
+		Empresa empresa = empresas.save(Empresa.builder()
+			.nome("Empresa Fila").cnpj(String.format("22.222.222/%04d-22", EMPRESAS.incrementAndGet())).email("fila@ocean.com")
+			.telefone("11999999999").endereco("Rua da Fila").build());
+		contrato = contratos.save(Contrato.builder()
+			.empresa(empresa).tipoContrato("patrocinio").dataInicio(DIA).dataFim(DIA.plusYears(1))
+			.valor(1000.0).status("ativo").assinaturaPendente("0").build());
+	}
+
+	@Test
+	void transacaoAceitaEhGravadaEmSegundoPlano() throws Exception {
+		String status = enfileirar();
+
+		String gravada = aguardarGravacao(status);
+		mvc.perform(get("/transacoes/" + JsonPath.read(gravada, "$.transacaoId")))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.descricao").value("Pagamento enfileirado"));
+	}
+
+	@Test
+	void filaCheiaRecusaComBackpressure() throws Exception {
+		filaService.stop();
+		String primeira;
+		String segunda;
+		try {
+			primeira = enfileirar();
+			segunda = enfileirar();
+			mvc.perform(post("/transacoes/fila").contentType(MediaType.APPLICATION_JSON).content(transacao(contrato.getId())))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+			mvc.perform(get(primeira)).andExpect(jsonPath("$.estado").value("PENDENTE"));
+		} finally {
+			filaService.start();
+		}
+
+		aguardarGravacao(primeira);
+		aguardarGravacao(segunda);
+	}
+
+	@Test
+	void ticketsAlemDaRetencaoSaoExcluidos() throws Exception {
+		String status = enfileirar();
+		Long transacaoId = ((Number) JsonPath.read(aguardarGravacao(status), "$.transacaoId")).longValue();
+		String ticket = status.substring(status.lastIndexOf('/') + 1);
+		ingestoes.save(new IngestaoTransacao("antigo-" + EMPRESAS.incrementAndGet(), transacaoId, Instant.now().minus(Duration.ofDays(8))));
+
+		assertThat(ingestService.excluirTickets(Instant.now().minus(Duration.ofDays(7)), 100)).isEqualTo(1);
+		assertThat(ingestoes.existsById(ticket)).isTrue();
+	}
+
+	@Test
+	void loteComContratoSemIdEhRecusado() throws Exception {
+		mvc.perform(post("/transacoes/lote").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"transacoes\":[" + transacao(contrato.getId()) + ",{\"contrato\":{},\"data\":\"" + DIA
+					+ "\",\"valor\":7.5,\"descricao\":\"Sem contrato\"}]}"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void contratoInexistenteNaoEntraNaFila() throws Exception {
+		mvc.perform(post("/transacoes/fila").contentType(MediaType.APPLICATION_JSON).content(transacao(Long.MAX_VALUE)))
+			.andExpect(status().isNotFound());
+	}
+
+	private String enfileirar() throws Exception {
+		return mvc.perform(post("/transacoes/fila").contentType(MediaType.APPLICATION_JSON).content(transacao(contrato.getId())))
+			.andExpect(status().isAccepted())
+			.andExpect(jsonPath("$.estado").value("PENDENTE"))
+			.andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+	}
+
+	private String aguardarGravacao(String status) throws Exception {
+		for (int tentativa = 0; tentativa < 200; tentativa++) {
+			String corpo = mvc.perform(get(status)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+			if (!"PENDENTE".equals(JsonPath.read(corpo, "$.estado"))) {
+				assertThat((String) JsonPath.read(corpo, "$.estado")).isEqualTo("GRAVADA");
+				return corpo;
+			}
+			Thread.sleep(50);
+		}
+		throw new AssertionError("Transação não foi gravada: " + status);
+	}
+
+	private static String transacao(Long contratoId) {
+		return "{\"contrato\":{\"id\":" + contratoId + "},\"data\":\"" + DIA + "\",\"valor\":7.5"
+			+ ",\"descricao\":\"Pagamento enfileirado\"}";
+	}
+}
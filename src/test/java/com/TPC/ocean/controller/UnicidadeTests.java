@@ -0,0 +1,76 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UnicidadeTests {
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Test
+	void cnpjDuplicadoEhRecusado() throws Exception {
+		double consultasAntes = consultas("EMPRESA_CNPJ", "banco");
+		String id = criar("/empresas", empresa("44.444.444/0001-44"));
+		assertThat(consultas("EMPRESA_CNPJ", "banco")).isEqualTo(consultasAntes);
+
+		mvc.perform(post("/empresas").contentType(MediaType.APPLICATION_JSON).content(empresa("44.444.444/0001-44")))
+			.andExpect(status().isConflict());
+		assertThat(consultas("EMPRESA_CNPJ", "banco")).isEqualTo(consultasAntes + 1);
+
+		mvc.perform(put("/empresas/" + id).contentType(MediaType.APPLICATION_JSON).content(empresa("44.444.444/0001-44")))
+			.andExpect(status().isOk());
+	}
+
+	@Test
+	void cpfEEmailDuplicadosSaoRecusados() throws Exception {
+		criar("/pessoas-fisicas", "{\"nome\":\"Pessoa\",\"cpf\":\"555.555.555-55\",\"email\":\"p@ocean.com\",\"senha\":\"senha1234\"}");
+		mvc.perform(post("/pessoas-fisicas").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"nome\":\"Outra\",\"cpf\":\"555.555.555-55\",\"email\":\"o@ocean.com\",\"senha\":\"senha1234\"}"))
+			.andExpect(status().isConflict());
+
+		criar("/usuarios", usuario("unico@ocean.com"));
+		mvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON).content(usuario("unico@ocean.com")))
+			.andExpect(status().isConflict());
+	}
+
+	private double consultas(String chave, String origem) {
+		var contador = meterRegistry.find("unicidade.verificacoes").tags("chave", chave, "origem", origem).counter();
+		return contador == null ? 0 : contador.count();
+	}
+
+	private String criar(String colecao, String corpo) throws Exception {
+		String resposta = mvc.perform(post(colecao).contentType(MediaType.APPLICATION_JSON).content(corpo))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		return String.valueOf((Object) JsonPath.read(resposta, "$.id"));
+	}
+
+	private static String empresa(String cnpj) {
+		return "{\"nome\":\"Empresa Única\",\"cnpj\":\"" + cnpj
+			+ "\",\"email\":\"unica@ocean.com\",\"telefone\":\"11999999999\",\"endereco\":\"Rua Única\"}";
+	}
+
+	private static String usuario(String email) {
+		return "{\"nome\":\"Usuário\",\"email\":\"" + email + "\",\"senha\":\"senha1234\",\"tipo\":\"pf\"}";
+	}
+}
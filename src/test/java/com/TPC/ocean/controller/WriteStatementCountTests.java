@@ -0,0 +1,113 @@
+package com.TPC.ocean.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import com.TPC.ocean.model.Empresa;
+import com.TPC.ocean.model.Servico;
+import com.TPC.ocean.repository.EmpresaRepository;
+import com.TPC.ocean.repository.ServicoRepository;
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WriteStatementCountTests {
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	EmpresaRepository empresas;
+
+	@Autowired
+	ServicoRepository servicos;
+
+	private static int sequencia;
+
+	private Empresa empresa;
+	private Servico servico;
+
+	@BeforeEach
+	void popular() {
+		empresa = empresas.save(Empresa.builder()
+			.nome("Empresa Escrita").cnpj("55.%03d.000/0001-00".formatted(++sequencia))
+			.email("escrita@ocean.com").telefone("11999999999").endereco("Rua da Escrita").build());
+		servico = servicos.save(Servico.builder()
+			.empresa(empresa).dataServico(LocalDate.of(2024, 5, 1)).descricao("Limpeza de praia").status("ativo").build());
+	}
+
+	@Test
+	void cadastroComReferenciaPorIdUsaUmaInstrucao() throws Exception {
+		String corpo = """
+			{"empresa":{"id":%d},"tipoContrato":"Pesca","dataInicio":"2024-01-01","dataFim":"2025-01-01","valor":10.0,"status":"Ativo","assinaturaPendente":"0"}"""
+			.formatted(empresa.getId());
+
+		assertThat(instrucoes(post("/contratos").contentType(MediaType.APPLICATION_JSON).content(corpo), status().isCreated()))
+			.isEqualTo(1);
+	}
+
+	@Test
+	void exclusaoUsaUmaInstrucao() throws Exception {
+		assertThat(instrucoes(delete("/servicos/" + servico.getId()), status().isNoContent())).isEqualTo(1);
+		assertThat(instrucoes(delete("/servicos/" + servico.getId()), status().isNotFound())).isEqualTo(1);
+	}
+
+	@Test
+	void atualizacaoSemMudancaNaoGravaNada() throws Exception {
+		assertThat(instrucoes(put("/servicos/" + servico.getId()).contentType(MediaType.APPLICATION_JSON).content(corpo("Limpeza de praia")),
+			status().isOk())).isEqualTo(1);
+		assertThat(servicos.findById(servico.getId()).orElseThrow().getVersao()).isEqualTo(servico.getVersao());
+	}
+
+	@Test
+	void atualizacaoGravaSoAsColunasAlteradas() throws Exception {
+		String resposta = mvc.perform(get("/servicos/" + servico.getId())).andReturn().getResponse().getContentAsString();
+		assertThat(JsonPath.<String>read(resposta, "$.descricao")).isEqualTo("Limpeza de praia");
+
+		assertThat(instrucoes(put("/servicos/" + servico.getId()).contentType(MediaType.APPLICATION_JSON).content(corpo("Coleta de redes")),
+			status().isOk())).isEqualTo(2);
+
+		// o cache por id não devolve a versão anterior
+		mvc.perform(get("/servicos/" + servico.getId()))
+			.andExpect(jsonPath("$.descricao").value("Coleta de redes"))
+			.andExpect(jsonPath("$.versao").value(servico.getVersao() + 1));
+	}
+
+	private String corpo(String descricao) {
+		return """
+			{"empresa":{"id":%d},"dataServico":"2024-05-01","descricao":"%s","status":"ativo"}"""
+			.formatted(empresa.getId(), descricao);
+	}
+
+	private long instrucoes(RequestBuilder request, ResultMatcher esperado) throws Exception {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mvc.perform(request).andExpect(esperado);
+		return statistics.getPrepareStatementCount();
+	}
+}
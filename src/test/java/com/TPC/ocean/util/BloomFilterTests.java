@@ -0,0 +1,42 @@
+package com.TPC.ocean.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTests {
+	private static final int ELEMENTOS = 10_000;
+
+	@Test
+	void valoresAdicionadosSempreSaoEncontrados() {
+		BloomFilter filtro = new BloomFilter(ELEMENTOS, 0.01);
+		for (int i = 0; i < ELEMENTOS; i++) {
+			filtro.adicionar(cpf(i));
+		}
+
+		for (int i = 0; i < ELEMENTOS; i++) {
+			assertThat(filtro.talvezContenha(cpf(i))).isTrue();
+		}
+	}
+
+	@Test
+	void falsosPositivosFicamProximosDaTaxaConfigurada() {
+		BloomFilter filtro = new BloomFilter(ELEMENTOS, 0.01);
+		for (int i = 0; i < ELEMENTOS; i++) {
+			filtro.adicionar(cpf(i));
+		}
+
+		long falsosPositivos = 0;
+		for (int i = ELEMENTOS; i < ELEMENTOS * 11; i++) {
+			if (filtro.talvezContenha(cpf(i))) {
+				falsosPositivos++;
+			}
+		}
+		assertThat(falsosPositivos / (double) (ELEMENTOS * 10)).isLessThan(0.02);
+		assertThat(filtro.funcoes()).isEqualTo(7);
+	}
+
+	private static String cpf(int i) {
+		return String.format("%03d.%03d.%03d-%02d", i / 1_000_000 % 1000, i / 1000 % 1000, i % 1000, i % 97);
+	}
+}
@@ -0,0 +1,44 @@
+package com.TPC.ocean.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.TPC.ocean.controller.ContratoController;
+
+class HateoasHelperTests {
+	@BeforeEach
+	void bindRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/contratos");
+		request.setContextPath("/api");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@AfterEach
+	void resetRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void linksUsamOCaminhoDoController() {
+		EntityModel<String> model = HateoasHelper.createModelWithLinks("c", ContratoController.class, 7L);
+
+		assertThat(model.getRequiredLink("self").getHref()).isEqualTo("http://localhost/api/contratos/7");
+		assertThat(model.getRequiredLink("delete").getHref()).isEqualTo("http://localhost/api/contratos/7");
+		assertThat(model.getRequiredLink("contents").getHref()).isEqualTo("http://localhost/api/contratos");
+	}
+
+	@Test
+	void linksRelativosForaDeRequisicao() {
+		RequestContextHolder.resetRequestAttributes();
+
+		assertThat(HateoasHelper.createModelWithLinks("c", ContratoController.class, 7L).getRequiredLink("self").getHref())
+			.isEqualTo("/contratos/7");
+	}
+}
@@ -0,0 +1,43 @@
+package com.TPC.ocean.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.TPC.ocean.util.IndiceInvertido.Resultado;
+
+class IndiceInvertidoTests {
+	@Test
+	void tokensSemAcentosEStopwords() {
+		assertThat(IndiceInvertido.tokens("Patrocínio da Limpeza na PRAIA de São Conrado"))
+			.containsExactly("patrocinio", "limpeza", "praia", "conrado");
+	}
+
+	@Test
+	void buscaOrdenaPorRelevancia() {
+		IndiceInvertido indice = new IndiceInvertido();
+		indice.indexar(1L, "Pagamento mensal");
+		indice.indexar(2L, "Limpeza da praia de Ipanema");
+		indice.indexar(3L, "Limpeza de praia e doação para limpeza de rios");
+		indice.indexar(4L, "Exibição de vídeo sobre praias");
+
+		assertThat(indice.buscar("limpeza praia", 10)).extracting(Resultado::id).containsExactly(2L, 3L);
+		assertThat(indice.buscar("LIMPEZA", 1)).extracting(Resultado::id).containsExactly(3L);
+		assertThat(indice.buscar("exibicao", 10)).extracting(Resultado::id).containsExactly(4L);
+	}
+
+	@Test
+	void reindexarERemoverAtualizamOIndice() {
+		IndiceInvertido indice = new IndiceInvertido();
+		indice.indexar(1L, "Limpeza de praia");
+		indice.indexar(1L, "Pagamento de patrocínio");
+		indice.indexar(2L, "Patrocínio anual");
+
+		assertThat(indice.buscar("limpeza", 10)).isEmpty();
+		assertThat(indice.buscar("patrocinio", 10)).extracting(Resultado::id).containsExactlyInAnyOrder(1L, 2L);
+
+		indice.remover(1L);
+		assertThat(indice.buscar("patrocinio", 10)).extracting(Resultado::id).containsExactly(2L);
+		assertThat(indice.tamanho()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,75 @@
+package com.TPC.ocean.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalTests {
+	@TempDir
+	Path pasta;
+
+	@Test
+	void registrosSobrevivemAReabertura() throws IOException {
+		Path arquivo = pasta.resolve("fila/journal");
+		try (Journal journal = new Journal(arquivo, 1024)) {
+			journal.escrever("{\"ticket\":\"a\"}");
+			journal.escrever("{\"ticket\":\"b\"}");
+			journal.sincronizar();
+		}
+
+		try (Journal journal = new Journal(arquivo, 1024)) {
+			journal.escrever("{\"ticket\":\"c\"}");
+			assertThat(journal.ler()).containsExactly("{\"ticket\":\"a\"}", "{\"ticket\":\"b\"}", "{\"ticket\":\"c\"}");
+		}
+	}
+
+	@Test
+	void registroIncompletoEhIgnorado() throws IOException {
+		Path arquivo = pasta.resolve("journal");
+		Files.writeString(pasta.resolve("journal.1"), "{\"ticket\":\"a\"}\n{\"tick", StandardCharsets.UTF_8, StandardOpenOption.CREATE);
+
+		try (Journal journal = new Journal(arquivo, 1024)) {
+			journal.escrever("{\"ticket\":\"b\"}");
+			assertThat(journal.ler()).containsExactly("{\"ticket\":\"a\"}", "{\"ticket\":\"b\"}");
+		}
+	}
+
+	@Test
+	void segmentosGravadosSaoExcluidos() throws IOException {
+		Path arquivo = pasta.resolve("journal");
+		try (Journal journal = new Journal(arquivo, 10)) {
+			long primeiro = journal.escrever("{\"ticket\":\"a\"}");
+			long segundo = journal.escrever("{\"ticket\":\"b\"}");
+			assertThat(segundo).isGreaterThan(primeiro);
+			assertThat(journal.fechados()).containsExactly(primeiro);
+			assertThat(journal.inicio().toEpochMilli()).isEqualTo(primeiro);
+
+			journal.excluir(primeiro);
+			journal.excluir(segundo);
+			assertThat(journal.ler()).containsExactly("{\"ticket\":\"b\"}");
+		}
+
+		try (Journal journal = new Journal(arquivo, 10)) {
+			assertThat(journal.ler()).containsExactly("{\"ticket\":\"b\"}");
+		}
+	}
+
+	@Test
+	void truncarEsvaziaOArquivo() throws IOException {
+		Path arquivo = pasta.resolve("journal");
+		try (Journal journal = new Journal(arquivo, 1024)) {
+			journal.escrever("{\"ticket\":\"a\"}");
+			journal.truncar();
+			journal.escrever("{\"ticket\":\"b\"}");
+
+			assertThat(journal.ler()).containsExactly("{\"ticket\":\"b\"}");
+		}
+	}
+}
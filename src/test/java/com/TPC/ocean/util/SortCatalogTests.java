@@ -0,0 +1,37 @@
+package com.TPC.ocean.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.TPC.ocean.model.Transacao;
+import com.TPC.ocean.model.Usuario;
+
+class SortCatalogTests {
+	@Test
+	void catalogoSoTemCamposIndexados() {
+		assertThat(SortCatalog.of(Transacao.class))
+			.containsEntry("id", "PK")
+			.containsEntry("data", "IX_TRANSACOES_DATA_VALOR")
+			.containsEntry("valor", "IX_TRANSACOES_VALOR")
+			.doesNotContainKeys("descricao", "contrato");
+		assertThat(SortCatalog.of(Usuario.class)).containsOnlyKeys("id", "nome", "email");
+	}
+
+	@Test
+	void ordenacaoPorCampoIndexado() {
+		assertThat(SortCatalog.sort(Transacao.class, "data", "desc")).isEqualTo(Sort.by(Sort.Direction.DESC, "data"));
+	}
+
+	@Test
+	void ordenacaoSemIndiceEhRejeitada() {
+		assertThatThrownBy(() -> SortCatalog.sort(Transacao.class, "descricao", "asc"))
+			.isInstanceOf(ResponseStatusException.class)
+			.hasMessageContaining("descricao");
+		assertThatThrownBy(() -> SortCatalog.sort(Transacao.class, "data", "para-cima"))
+			.isInstanceOf(ResponseStatusException.class);
+	}
+}